@@ -0,0 +1,97 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PackedBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Points appended per second when a {@value #TRACE}-point trace is uploaded point by point
+ * (one {@code addPoint} per point, as one PUT per point does) or as a single {@code addPoints}
+ * batch. The JPA layouts run on the embedded H2 database of the "test" profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchAppendBenchmark {
+
+    private static final int TRACE = 1000;
+
+    @Param({"memory", "rows", "packed"})
+    public String layout;
+
+    @Param({"200"})
+    public int blueprints;
+
+    private ConfigurableApplicationContext context;
+    private BlueprintPersistence persistence;
+    private final int[] trace = new int[TRACE * 2];
+
+    @Setup
+    public void setUp() {
+        if (layout.equals("memory")) {
+            persistence = new InMemoryBlueprintPersistence();
+        } else {
+            context = new SpringApplicationBuilder(BlueprintsApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles(layout.equals("packed") ? new String[] {"test", "packed"} : new String[] {"test"})
+                    .properties("spring.jpa.show-sql=false",
+                            "spring.jpa.properties.hibernate.generate_statistics=false",
+                            "logging.level.root=WARN")
+                    .run();
+            persistence = layout.equals("packed")
+                    ? context.getBean(PackedBlueprintPersistence.class)
+                    : context.getBean(PostgresBlueprintPersistence.class);
+        }
+        List<Blueprint> bps = new ArrayList<>(blueprints);
+        for (int b = 0; b < blueprints; b++) bps.add(new Blueprint("uploader", "bp" + b, 0));
+        persistence.saveBlueprints(bps);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < trace.length; i++) trace[i] = random.nextInt(10_000);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (context != null) context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRACE)
+    public void pointByPoint() throws BlueprintNotFoundException {
+        String name = "bp" + ThreadLocalRandom.current().nextInt(blueprints);
+        for (int i = 0; i < trace.length; i += 2) persistence.addPoint("uploader", name, trace[i], trace[i + 1]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRACE)
+    public void oneBatch() throws BlueprintNotFoundException {
+        persistence.addPoints("uploader", "bp" + ThreadLocalRandom.current().nextInt(blueprints), trace);
+    }
+}
@@ -0,0 +1,44 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent appends to one hot blueprint. Run with {@code -t 1,2,4,...} (or several
+ * {@code -t} runs) to see how the wait-free append scales with the number of writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class BlueprintAppendBenchmark {
+
+    private Blueprint bp;
+
+    // Fresh blueprint per iteration so segments don't grow without bound across the run.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        bp = new Blueprint("bench", "hot", 0);
+    }
+
+    @Benchmark
+    public void addPoint() {
+        bp.addPoint(1, 2);
+    }
+}
@@ -0,0 +1,81 @@
+package edu.eci.arsw.blueprints.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.eci.arsw.blueprints.codec.BlueprintCodec;
+import edu.eci.arsw.blueprints.dto.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Binary codec against Jackson for the same blueprint, a random walk like a hand drawing. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int points;
+
+    private Blueprint bp;
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Random random = new Random(11);
+        bp = new Blueprint("john", "house", points);
+        int x = 500, y = 500;
+        for (int i = 0; i < points; i++) {
+            x += random.nextInt(7) - 3;
+            y += random.nextInt(7) - 3;
+            bp.addPoint(x, y);
+        }
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        jsonWriter = mapper.writerFor(Blueprint.class);
+        jsonReader = mapper.readerFor(NewBlueprintRequest.class);
+        json = jsonWriter.writeValueAsBytes(bp);
+        binary = BlueprintCodec.encode(bp);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws JsonProcessingException {
+        return jsonWriter.writeValueAsBytes(bp);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return BlueprintCodec.encode(bp);
+    }
+
+    @Benchmark
+    public NewBlueprintRequest decodeJson() throws IOException {
+        return jsonReader.readValue(json);
+    }
+
+    @Benchmark
+    public Blueprint decodeBinary() throws IOException {
+        return BlueprintCodec.decode(binary);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of each filter, and of a chain, by blueprint size. {@code fused} runs the
+ * chain as {@link FilterRegistry} builds it, in one pass; {@code naive} applies the same filters
+ * one after another, each building a new blueprint. Run with {@code -prof gc} to compare
+ * their allocation ({@code gc.alloc.rate.norm}, bytes per call).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int points;
+
+    @Param({"redundancy", "undersampling", "redundancy,undersampling"})
+    public String filters;
+
+    private Blueprint bp;
+    private BlueprintsFilter filter;
+    private List<BlueprintsFilter> stages;
+
+    @Setup
+    public void setUp() {
+        // Small coordinate range so roughly a third of consecutive points repeat
+        // and the redundancy filter has work to do.
+        Random random = new Random(42);
+        bp = new Blueprint("bench", "filter", points);
+        for (int i = 0; i < points; i++) bp.addPoint(random.nextInt(3), random.nextInt(3));
+        FilterRegistry registry = new FilterRegistry();
+        filter = registry.chain(List.of(filters.split(",")));
+        stages = new ArrayList<>();
+        for (String name : filters.split(",")) stages.add(registry.chain(List.of(name)));
+    }
+
+    @Benchmark
+    public Blueprint fused() {
+        return filter.apply(bp);
+    }
+
+    @Benchmark
+    public Blueprint naive() {
+        Blueprint out = bp;
+        for (BlueprintsFilter stage : stages) out = stage.apply(out);
+        return out;
+    }
+}
@@ -0,0 +1,89 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixed read/write load on the in-memory store: point lookups, author listings and appends
+ * run at the same time from separate thread groups, so each is measured under contention
+ * from the others.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryPersistenceBenchmark {
+
+    @Param({"16"})
+    public int authors;
+
+    @Param({"64"})
+    public int blueprintsPerAuthor;
+
+    @Param({"100"})
+    public int pointsPerBlueprint;
+
+    private InMemoryBlueprintPersistence persistence;
+
+    // Fresh store per iteration so appends don't grow blueprints without bound across the run.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        persistence = new InMemoryBlueprintPersistence();
+        List<Blueprint> bps = new ArrayList<>(authors * blueprintsPerAuthor);
+        for (int a = 0; a < authors; a++) {
+            for (int b = 0; b < blueprintsPerAuthor; b++) {
+                Blueprint bp = new Blueprint("author" + a, "bp" + b, pointsPerBlueprint);
+                for (int i = 0; i < pointsPerBlueprint; i++) bp.addPoint(i, i);
+                bps.add(bp);
+            }
+        }
+        persistence.saveBlueprints(bps);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public Blueprint get() throws BlueprintNotFoundException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return persistence.getBlueprint("author" + random.nextInt(authors), "bp" + random.nextInt(blueprintsPerAuthor));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public Set<Blueprint> byAuthor() throws BlueprintNotFoundException {
+        return persistence.getBlueprintsByAuthor("author" + ThreadLocalRandom.current().nextInt(authors));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public void addPoint() throws BlueprintNotFoundException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        persistence.addPoint("author" + random.nextInt(authors), "bp" + random.nextInt(blueprintsPerAuthor),
+                random.nextInt(1000), random.nextInt(1000));
+    }
+}
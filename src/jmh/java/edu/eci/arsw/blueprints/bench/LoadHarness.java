@@ -0,0 +1,178 @@
+package edu.eci.arsw.blueprints.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives the HTTP API with many concurrent clients against the embedded H2 database, once with
+ * Tomcat on platform threads and once with the "virtual" profile, and reports throughput and
+ * latency percentiles for each mode. Clients always run on virtual threads so the driver is
+ * never the bottleneck.
+ *
+ * <pre>
+ * mvn -B -Pjmh test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=edu.eci.arsw.blueprints.bench.LoadHarness \
+ *     -Dload.clients=1000 -Dload.seconds=30
+ * </pre>
+ *
+ * Results are printed and written as JSON to {@code target/load-result.json}.
+ */
+public final class LoadHarness {
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 1000);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 5);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 20);
+    private static final int AUTHORS = 50;
+    private static final int BLUEPRINTS_PER_AUTHOR = 20;
+    private static final int POINTS_PER_BLUEPRINT = 200;
+
+    record Result(String mode, long requests, long errors, double throughputPerSecond,
+                  double p50Millis, double p99Millis, double maxMillis) { }
+
+    private LoadHarness() { }
+
+    public static void main(String[] args) throws Exception {
+        List<Result> results = List.of(run("platform"), run("virtual"));
+        for (Result r : results) {
+            System.out.printf("%-8s %,10d req %,6d err %,10.0f req/s  p50=%.2f ms  p99=%.2f ms  max=%.2f ms%n",
+                    r.mode(), r.requests(), r.errors(), r.throughputPerSecond(), r.p50Millis(), r.p99Millis(), r.maxMillis());
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", CLIENTS);
+        report.put("seconds", SECONDS);
+        report.put("results", results);
+        File out = new File("target/load-result.json");
+        out.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+    }
+
+    private static Result run(String mode) throws Exception {
+        SpringApplicationBuilder app = new SpringApplicationBuilder(BlueprintsApplication.class)
+                .profiles(mode.equals("virtual") ? new String[] {"test", "virtual"} : new String[] {"test"})
+                .properties("server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "blueprints.metrics.slow-request-threshold=1h",
+                        "logging.level.root=WARN");
+        try (ConfigurableApplicationContext context = app.run()) {
+            seed(context.getBean(BlueprintsServices.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/v1/blueprints/";
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+                drive(http, clients, base, WARMUP_SECONDS);
+                long[][] latencies = drive(http, clients, base, SECONDS);
+                return summarize(mode, latencies);
+            }
+        }
+    }
+
+    private static void seed(BlueprintsServices services) {
+        List<Blueprint> bps = new ArrayList<>(AUTHORS * BLUEPRINTS_PER_AUTHOR);
+        for (int a = 0; a < AUTHORS; a++) {
+            for (int b = 0; b < BLUEPRINTS_PER_AUTHOR; b++) {
+                Blueprint bp = new Blueprint("author" + a, "bp" + b, POINTS_PER_BLUEPRINT);
+                for (int i = 0; i < POINTS_PER_BLUEPRINT; i++) bp.addPoint(i, i);
+                bps.add(bp);
+            }
+        }
+        services.addNewBlueprints(bps);
+    }
+
+    /**
+     * Runs every client for {@code seconds}; element {@code [c]} holds client {@code c}'s latencies
+     * in nanoseconds, negated for failed requests.
+     */
+    private static long[][] drive(HttpClient http, ExecutorService clients, String base, int seconds) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<long[]>> futures = new ArrayList<>(CLIENTS);
+        for (int c = 0; c < CLIENTS; c++) {
+            futures.add(clients.submit(() -> {
+                long[] samples = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = nextRequest(base);
+                    long start = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                    } catch (IOException e) {
+                        ok = false;
+                    }
+                    long nanos = System.nanoTime() - start;
+                    if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+                    samples[n++] = ok ? nanos : -nanos;
+                }
+                return Arrays.copyOf(samples, n);
+            }));
+        }
+        long[][] latencies = new long[CLIENTS][];
+        for (int c = 0; c < CLIENTS; c++) latencies[c] = futures.get(c).get();
+        return latencies;
+    }
+
+    // 80% single reads, 10% author listings, 10% point appends.
+    private static HttpRequest nextRequest(String base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String author = "author" + random.nextInt(AUTHORS);
+        int op = random.nextInt(10);
+        if (op == 0) {
+            return HttpRequest.newBuilder(URI.create(base + author)).GET().build();
+        }
+        String path = base + author + "/bp" + random.nextInt(BLUEPRINTS_PER_AUTHOR);
+        if (op == 1) {
+            String body = "{\"x\":" + random.nextInt(1000) + ",\"y\":" + random.nextInt(1000) + "}";
+            return HttpRequest.newBuilder(URI.create(path + "/points"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+        return HttpRequest.newBuilder(URI.create(path)).GET().build();
+    }
+
+    private static Result summarize(String mode, long[][] latencies) {
+        long errors = 0;
+        int total = 0;
+        for (long[] client : latencies) total += client.length;
+        long[] all = new long[total];
+        int i = 0;
+        for (long[] client : latencies) {
+            for (long sample : client) {
+                if (sample < 0) errors++;
+                all[i++] = Math.abs(sample);
+            }
+        }
+        Arrays.sort(all);
+        return new Result(mode, total, errors, total / (double) SECONDS,
+                percentile(all, 0.50), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,110 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PackedBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JPA store on the embedded H2 database of the "test" profile, in the row-per-point layout and
+ * the packed one. Absolute numbers say little about a real Postgres server; the point is
+ * catching query-count and mapping regressions and comparing the two layouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostgresPersistenceBenchmark {
+
+    @Param({"20"})
+    public int authors;
+
+    @Param({"50"})
+    public int blueprintsPerAuthor;
+
+    @Param({"100", "2000"})
+    public int pointsPerBlueprint;
+
+    @Param({"rows", "packed"})
+    public String layout;
+
+    private ConfigurableApplicationContext context;
+    private BlueprintPersistence persistence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlueprintsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(layout.equals("packed") ? new String[] {"test", "packed"} : new String[] {"test"})
+                .properties("spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        persistence = layout.equals("packed")
+                ? context.getBean(PackedBlueprintPersistence.class)
+                : context.getBean(PostgresBlueprintPersistence.class);
+
+        List<Blueprint> bps = new ArrayList<>(authors * blueprintsPerAuthor);
+        for (int a = 0; a < authors; a++) {
+            for (int b = 0; b < blueprintsPerAuthor; b++) {
+                Blueprint bp = new Blueprint("author" + a, "bp" + b, pointsPerBlueprint);
+                for (int i = 0; i < pointsPerBlueprint; i++) bp.addPoint(i, i);
+                bps.add(bp);
+            }
+        }
+        persistence.saveBlueprints(bps);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Blueprint get() throws BlueprintNotFoundException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return persistence.getBlueprint("author" + random.nextInt(authors), "bp" + random.nextInt(blueprintsPerAuthor));
+    }
+
+    @Benchmark
+    public Set<Blueprint> byAuthor() throws BlueprintNotFoundException {
+        return persistence.getBlueprintsByAuthor("author" + ThreadLocalRandom.current().nextInt(authors));
+    }
+
+    @Benchmark
+    public List<Blueprint> firstPage() {
+        return persistence.getBlueprintsPage(null, null, 100);
+    }
+
+    @Benchmark
+    public void addPoint() throws BlueprintNotFoundException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        persistence.addPoint("author" + random.nextInt(authors), "bp" + random.nextInt(blueprintsPerAuthor),
+                random.nextInt(1000), random.nextInt(1000));
+    }
+}
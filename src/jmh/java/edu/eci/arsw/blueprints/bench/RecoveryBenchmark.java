@@ -0,0 +1,96 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.DurableBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Startup time of the "durable" in-memory store with millions of points on disk, recovered
+ * from the write-ahead log alone ({@code log}: one record per 1000-point append) or from a
+ * snapshot ({@code snapshot}). Each invocation rebuilds the whole store, spatial index and
+ * summaries included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class RecoveryBenchmark {
+
+    private static final int BATCH = 1000;
+
+    @Param({"1000000", "5000000"})
+    public int points;
+
+    @Param({"log", "snapshot"})
+    public String source;
+
+    @Param({"1000"})
+    public int blueprints;
+
+    private Path dir;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("blueprints-recovery");
+        try (DurableBlueprintPersistence store = open()) {
+            for (int b = 0; b < blueprints; b++) store.saveBlueprint(new Blueprint("recovered", "bp" + b, 0));
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int[] xy = new int[BATCH * 2];
+            for (int written = 0; written < points; written += BATCH) {
+                // A drawing: each point a short step from the previous one.
+                int x = random.nextInt(100_000), y = random.nextInt(100_000);
+                for (int i = 0; i < xy.length; i += 2) {
+                    x += random.nextInt(21) - 10;
+                    y += random.nextInt(21) - 10;
+                    xy[i] = x;
+                    xy[i + 1] = y;
+                }
+                store.addPoints("recovered", "bp" + random.nextInt(blueprints), xy);
+            }
+            if (source.equals("snapshot")) store.snapshot();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+        }
+    }
+
+    @Benchmark
+    public long recover() throws Exception {
+        try (DurableBlueprintPersistence store = open()) {
+            return store.getCatalogVersion();
+        }
+    }
+
+    // fsync off: the benchmark measures reading, not how fast setUp can write.
+    private DurableBlueprintPersistence open() throws IOException {
+        return new DurableBlueprintPersistence(new InMemoryBlueprintPersistence(false), dir, false, Long.MAX_VALUE,
+                Duration.ofHours(1));
+    }
+}
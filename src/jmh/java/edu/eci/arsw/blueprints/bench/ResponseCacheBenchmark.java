@@ -0,0 +1,79 @@
+package edu.eci.arsw.blueprints.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.eci.arsw.blueprints.dto.ApiResponse;
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.filters.RedundancyFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache.Format;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A single-blueprint GET body as the controller produced it before the response cache (load,
+ * filter, serialize on every request) against a hit in {@link BlueprintResponseCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCacheBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int points;
+
+    private BlueprintsServices services;
+    private BlueprintResponseCache responses;
+    private ObjectWriter writer;
+    private long version;
+
+    @Setup
+    public void setUp() throws BlueprintPersistenceException, BlueprintNotFoundException {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        Blueprint bp = new Blueprint("bench", "cached", points);
+        // Pairs of repeated points, so the redundancy filter has work to do.
+        for (int i = 0; i < points; i++) bp.addPoint(i / 2, -i / 2);
+        persistence.saveBlueprint(bp);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        services = new BlueprintsServices(persistence, new RedundancyFilter(), new FilterRegistry(), Long.MAX_VALUE, meters);
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writer();
+        responses = new BlueprintResponseCache(services, mapper, meters, 1L << 30, Duration.ofHours(1), 1024);
+        version = services.getBlueprintVersion("bench", "cached");
+        responses.render("bench", "cached", null, version, Format.JSON, false);
+    }
+
+    @Benchmark
+    public byte[] perRequest() throws BlueprintNotFoundException, JsonProcessingException {
+        Blueprint bp = services.getBlueprint("bench", "cached");
+        return writer.writeValueAsBytes(new ApiResponse<>(200, "execute ok", bp));
+    }
+
+    @Benchmark
+    public byte[] cached() throws BlueprintNotFoundException {
+        return responses.render("bench", "cached", null, version, Format.JSON, false).body();
+    }
+}
@@ -0,0 +1,82 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Box queries on the in-memory store as the catalog grows at constant density: the grid
+ * lookup should stay flat while the full scan grows with the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpatialIndexBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int blueprints;
+
+    @Param({"200"})
+    public int boxSize;
+
+    private InMemoryBlueprintPersistence persistence;
+    private int side;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(19);
+        side = (int) Math.sqrt(blueprints) * 500;
+        persistence = new InMemoryBlueprintPersistence();
+        List<Blueprint> bps = new ArrayList<>(blueprints);
+        for (int b = 0; b < blueprints; b++) {
+            Blueprint bp = new Blueprint("bench", "bp" + b, 50);
+            int x = random.nextInt(side), y = random.nextInt(side);
+            for (int i = 0; i < 50; i++) bp.addPoint(x += random.nextInt(21) - 10, y += random.nextInt(21) - 10);
+            bps.add(bp);
+        }
+        persistence.saveBlueprints(bps);
+    }
+
+    private BoundingBox randomBox() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int x = random.nextInt(side), y = random.nextInt(side);
+        return new BoundingBox(x, y, x + boxSize, y + boxSize);
+    }
+
+    @Benchmark
+    public Set<Blueprint> indexed() {
+        return persistence.getBlueprintsInBox(randomBox());
+    }
+
+    @Benchmark
+    public Set<Blueprint> scan() {
+        BoundingBox box = randomBox();
+        Set<Blueprint> found = new HashSet<>();
+        persistence.forEachBlueprint(bp -> {
+            if (box.containsAnyPoint(bp)) found.add(bp);
+        });
+        return found;
+    }
+}
@@ -0,0 +1,87 @@
+package edu.eci.arsw.blueprints.bench;
+
+import edu.eci.arsw.blueprints.BlueprintsApplication;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.WriteBehindBlueprintPersistence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained append rate on the JPA store of the "test" profile (embedded H2), each append a
+ * transaction of its own ({@code sync}) or acknowledged from the write-behind buffers
+ * ({@code write-behind}). Buffers are bounded, so once they fill the rate is the one the
+ * group-committed flushes sustain, not the cost of queueing. The buffers are flushed when
+ * the trial ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class WriteBehindBenchmark {
+
+    @Param({"sync", "write-behind"})
+    public String mode;
+
+    // Few hot blueprints: drawing clients append to what they are drawing.
+    @Param({"16"})
+    public int blueprints;
+
+    private ConfigurableApplicationContext context;
+    private BlueprintPersistence persistence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlueprintsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN")
+                .run();
+        BlueprintPersistence store = context.getBean(PostgresBlueprintPersistence.class);
+        List<Blueprint> bps = new ArrayList<>(blueprints);
+        for (int b = 0; b < blueprints; b++) bps.add(new Blueprint("drawer", "bp" + b, 0));
+        store.saveBlueprints(bps);
+        persistence = mode.equals("sync") ? store
+                : new WriteBehindBlueprintPersistence(store, 500, 5000, Duration.ofMillis(20), new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (persistence instanceof WriteBehindBlueprintPersistence writeBehind) writeBehind.close();
+        context.close();
+    }
+
+    @Benchmark
+    public void addPoint() throws BlueprintNotFoundException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        persistence.addPoint("drawer", "bp" + random.nextInt(blueprints), random.nextInt(1000), random.nextInt(1000));
+    }
+}
@@ -0,0 +1,131 @@
+package edu.eci.arsw.blueprints.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * LRU cache bounded by the total weight of its values instead of their number, with a
+ * fixed time-to-live per entry. Loads happen outside the cache: callers read
+ * {@link #generation()} before loading and pass it to {@link #put}, which drops the value
+ * if its key was invalidated in the meantime, so a slow load can never resurrect stale data.
+ * Invalidations of other keys do not affect the load.
+ */
+public class WeightedLruCache<K, V> {
+
+    public record Stats(long hits, long misses, long evictions, int entries, long weight) { }
+
+    private record Entry<V>(V value, long weight, long expiresAt) { }
+
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    // Generation of the latest invalidation per key, oldest first. Bounded: once a stamp is
+    // dropped, loads started before it are refused for every key, which is safe but coarser.
+    private final LinkedHashMap<K, Long> invalidated = new LinkedHashMap<>();
+    private long weight;
+    private long generation;
+    private long forgottenBefore;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final int MAX_INVALIDATED_KEYS = 4096;
+
+    public WeightedLruCache(long maxWeight, Duration ttl, ToLongFunction<V> weigher) {
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttl.toNanos();
+        this.weigher = weigher;
+    }
+
+    /** Cached value, or null on a miss (absent or expired). */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> e = entries.get(key);
+            if (e != null && e.expiresAt() - System.nanoTime() > 0) {
+                hits.increment();
+                return e.value();
+            }
+            if (e != null) {
+                remove(key, e);
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long generation() {
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Caches {@code value} unless {@code key} was invalidated since {@code loadGeneration} was read. */
+    public void put(K key, V value, long loadGeneration) {
+        long w = Math.max(1, weigher.applyAsLong(value));
+        if (w > maxWeight) return;
+        lock.lock();
+        try {
+            Long invalidatedAt = invalidated.get(key);
+            if (loadGeneration < forgottenBefore || (invalidatedAt != null && invalidatedAt > loadGeneration)) return;
+            Entry<V> old = entries.put(key, new Entry<>(value, w, System.nanoTime() + ttlNanos));
+            if (old != null) weight -= old.weight();
+            weight += w;
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                Entry<V> e = eldest.next().getValue();
+                eldest.remove();
+                weight -= e.weight();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            generation++;
+            invalidated.remove(key);
+            invalidated.put(key, generation);
+            if (invalidated.size() > MAX_INVALIDATED_KEYS) {
+                Iterator<Long> oldest = invalidated.values().iterator();
+                forgottenBefore = oldest.next();
+                oldest.remove();
+            }
+            Entry<V> e = entries.get(key);
+            if (e != null) remove(key, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        lock.lock();
+        try {
+            return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(K key, Entry<V> e) {
+        entries.remove(key);
+        weight -= e.weight();
+    }
+}
@@ -0,0 +1,101 @@
+package edu.eci.arsw.blueprints.codec;
+
+import edu.eci.arsw.blueprints.dto.ApiResponse;
+import edu.eci.arsw.blueprints.dto.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Content negotiation for {@value BlueprintCodec#MEDIA_TYPE}: reads blueprint creations and
+ * points, and writes responses whose data is a blueprint or a collection of them. The
+ * {@link ApiResponse} envelope is not encoded; the HTTP status carries the outcome, so error
+ * and write-acknowledgement responses have an empty body. Any other payload is not writable
+ * in this format and negotiates to 406. A raw {@code ApiResponse} (returned through
+ * {@code ResponseEntity<?>}, so its payload type is only known at runtime) is accepted and
+ * checked when written: error envelopes carry no data and still answer with their status.
+ */
+public class BlueprintBinaryMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType BLUEPRINT = MediaType.parseMediaType(BlueprintCodec.MEDIA_TYPE);
+
+    public BlueprintBinaryMessageConverter() {
+        super(BLUEPRINT);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == ApiResponse.class || clazz == Point.class || clazz == NewBlueprintRequest.class
+                || Blueprint.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        Class<?> c = ResolvableType.forType(type).toClass();
+        return (c == Point.class || c == NewBlueprintRequest.class || c == Blueprint.class) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.NONE;
+        if (resolved.resolve() == null || resolved.toClass() == Object.class) resolved = ResolvableType.forClass(clazz);
+        return writable(resolved) && canWrite(mediaType);
+    }
+
+    private static boolean writable(ResolvableType type) {
+        if (ApiResponse.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+            if (type.resolve() == null) return true;
+        }
+        Class<?> c = type.toClass();
+        if (c == Void.class || Blueprint.class.isAssignableFrom(c)) return true;
+        return Collection.class.isAssignableFrom(c)
+                && Blueprint.class.isAssignableFrom(type.asCollection().getGeneric(0).toClass());
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal(ResolvableType.forType(type).toClass(), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        BlueprintFrameReader reader = new BlueprintFrameReader(inputMessage.getBody());
+        try {
+            if (clazz == Point.class) return reader.readPoint();
+            Blueprint bp = reader.read();
+            if (bp == null) throw new HttpMessageNotReadableException("Empty blueprint body", inputMessage);
+            return clazz == Blueprint.class ? bp : new NewBlueprintRequest(bp.getAuthor(), bp.getName(), bp.getPoints());
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Malformed " + BlueprintCodec.MEDIA_TYPE + " body: " + e.getMessage(),
+                    e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        Object data = body instanceof ApiResponse<?> response ? response.data() : body;
+        if (data != null && !(data instanceof Blueprint) && !(data instanceof Collection<?>)) {
+            throw new HttpMessageNotWritableException("No " + BlueprintCodec.MEDIA_TYPE + " encoding for "
+                    + data.getClass().getSimpleName());
+        }
+        try (BlueprintFrameWriter writer = new BlueprintFrameWriter(outputMessage.getBody())) {
+            if (data instanceof Blueprint bp) {
+                writer.write(bp);
+            } else if (data instanceof Collection<?> bps) {
+                for (Object bp : bps) writer.write((Blueprint) bp);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package edu.eci.arsw.blueprints.codec;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Compact binary form of blueprints, served as {@value #MEDIA_TYPE}.
+ *
+ * <p>A body is a sequence of self-delimiting frames, so it can be written and read one blueprint
+ * at a time:
+ * <pre>
+ * frame  = string(author) string(name) varint(pointCount) point*
+ * string = varint(byteLength) utf8Bytes
+ * point  = zigzag(x - prevX) zigzag(y - prevY)       (prev starts at 0,0)
+ * </pre>
+ * Varints are unsigned LEB128 (7 bits per byte, low bits first). Deltas wrap like int
+ * arithmetic, so any coordinate pair round-trips; consecutive points of a drawing are close
+ * together and usually take one byte per axis. A single point (PUT body) is just the two
+ * zigzag varints of its coordinates.
+ */
+public final class BlueprintCodec {
+
+    public static final String MEDIA_TYPE = "application/x-blueprint";
+
+    private BlueprintCodec() { }
+
+    public static byte[] encode(Blueprint bp) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + bp.pointCount() * 2);
+        try (BlueprintFrameWriter writer = new BlueprintFrameWriter(bytes)) {
+            writer.write(bp);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Decodes the first frame of {@code bytes}. */
+    public static Blueprint decode(byte[] bytes) throws IOException {
+        Blueprint bp = new BlueprintFrameReader(new ByteArrayInputStream(bytes)).read();
+        if (bp == null) throw new IOException("Empty blueprint body");
+        return bp;
+    }
+
+    static int zigzag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    static int unzigzag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
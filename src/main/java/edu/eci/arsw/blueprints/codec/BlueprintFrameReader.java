@@ -0,0 +1,104 @@
+package edu.eci.arsw.blueprints.codec;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/** Reads {@link BlueprintCodec} frames through its own buffer; malformed input fails with an {@link IOException}. */
+public final class BlueprintFrameReader {
+
+    private static final int MAX_STRING_BYTES = 1 << 16;
+    // The declared count comes from the client; never preallocate more than this for it.
+    private static final int MAX_PREALLOCATED_POINTS = 1 << 16;
+
+    private final InputStream in;
+    private final byte[] buf = new byte[8192];
+    private int pos;
+    private int limit;
+
+    public BlueprintFrameReader(InputStream in) {
+        this.in = in;
+    }
+
+    /** Next blueprint, or {@code null} if the input ended cleanly between frames. */
+    public Blueprint read() throws IOException {
+        if (!fill()) return null;
+        String author = readString();
+        String name = readString();
+        int n = readVarint();
+        if (n < 0) throw new IOException("Invalid point count");
+        Blueprint.Builder bp = Blueprint.builder(author, name, Math.min(n, MAX_PREALLOCATED_POINTS));
+        int x = 0, y = 0;
+        for (int i = 0; i < n; i++) {
+            x += BlueprintCodec.unzigzag(readVarint());
+            y += BlueprintCodec.unzigzag(readVarint());
+            bp.add(x, y);
+        }
+        return bp.build();
+    }
+
+    public Point readPoint() throws IOException {
+        int x = BlueprintCodec.unzigzag(readVarint());
+        int y = BlueprintCodec.unzigzag(readVarint());
+        return new Point(x, y);
+    }
+
+    private String readString() throws IOException {
+        int len = readVarint();
+        if (len < 0 || len > MAX_STRING_BYTES) throw new IOException("Invalid string length");
+        if (len <= buf.length) {
+            require(len);
+            String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+        byte[] bytes = new byte[len];
+        int copied = limit - pos;
+        System.arraycopy(buf, pos, bytes, 0, copied);
+        pos = limit;
+        if (in.readNBytes(bytes, copied, len - copied) != len - copied) throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarint() throws IOException {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (pos == limit && !fill()) throw new EOFException();
+            byte b = buf[pos++];
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    // Makes at least `bytes` bytes (no more than the buffer size) available at pos.
+    private void require(int bytes) throws IOException {
+        if (limit - pos >= bytes) return;
+        System.arraycopy(buf, pos, buf, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+        while (limit < bytes) {
+            int r = in.read(buf, limit, buf.length - limit);
+            if (r < 0) throw new EOFException();
+            limit += r;
+        }
+    }
+
+    // True if a byte is available, reading more when the buffer is exhausted.
+    private boolean fill() throws IOException {
+        if (pos < limit) return true;
+        pos = 0;
+        limit = 0;
+        int r;
+        do {
+            r = in.read(buf, 0, buf.length);
+        } while (r == 0);
+        if (r < 0) return false;
+        limit = r;
+        return true;
+    }
+}
@@ -0,0 +1,95 @@
+package edu.eci.arsw.blueprints.codec;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes {@link BlueprintCodec} frames through its own buffer, so encoding a point costs a few
+ * array stores rather than stream calls. {@link #close()} flushes but leaves the target open.
+ */
+public final class BlueprintFrameWriter implements Flushable, Closeable {
+
+    // A point is at most two 5-byte varints.
+    private static final int MAX_POINT_BYTES = 10;
+
+    private final OutputStream out;
+    private final byte[] buf = new byte[8192];
+    private int pos;
+
+    public BlueprintFrameWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    public void write(Blueprint bp) throws IOException {
+        writeString(bp.getAuthor());
+        writeString(bp.getName());
+        int n = bp.pointCount();
+        ensure(5);
+        putVarint(n);
+        int px = 0, py = 0;
+        for (int i = 0; i < n; i++) {
+            int x = bp.xAt(i), y = bp.yAt(i);
+            ensure(MAX_POINT_BYTES);
+            putVarint(BlueprintCodec.zigzag(x - px));
+            putVarint(BlueprintCodec.zigzag(y - py));
+            px = x;
+            py = y;
+        }
+    }
+
+    public void writePoint(int x, int y) throws IOException {
+        ensure(MAX_POINT_BYTES);
+        putVarint(BlueprintCodec.zigzag(x));
+        putVarint(BlueprintCodec.zigzag(y));
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+        ensure(5);
+        putVarint(bytes.length);
+        if (bytes.length > buf.length - pos) {
+            drain();
+            if (bytes.length > buf.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void putVarint(int v) {
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buf.length - pos < bytes) drain();
+    }
+
+    private void drain() throws IOException {
+        if (pos > 0) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.codec.BlueprintBinaryMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the binary blueprint format after the default converters, so JSON keeps winning
+ * when a client accepts anything and the binary form is only chosen when asked for.
+ */
+@Configuration
+public class CodecConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new BlueprintBinaryMessageConverter());
+    }
+}
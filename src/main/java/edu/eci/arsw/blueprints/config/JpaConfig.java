@@ -0,0 +1,16 @@
+package edu.eci.arsw.blueprints.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Spring Data repositories for the Postgres layouts. The "durable" profile keeps everything in
+ * memory and excludes the data source and JPA auto-configuration
+ * ({@code application-durable.properties}), so the repositories are not created there either.
+ */
+@Configuration
+@Profile("!durable")
+@EnableJpaRepositories(basePackages = "edu.eci.arsw.blueprints.persistence")
+public class JpaConfig {
+}
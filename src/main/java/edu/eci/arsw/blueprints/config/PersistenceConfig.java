@@ -0,0 +1,102 @@
+package edu.eci.arsw.blueprints.config;
+
+import edu.eci.arsw.blueprints.events.BlueprintEventHub;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.DurableBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.EventPublishingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.MeteredBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PackedBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.WriteBehindBlueprintPersistence;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Assembles the {@link BlueprintPersistence} the services use: the Postgres backend (a row
+ * per point, or packed points with the "packed" profile) or, with the "durable" profile, the
+ * in-memory store backed by a write-ahead log and no data source at all, optionally wrapped by decorators
+ * selected through profiles, then always publishing to the event hub and metered outermost.
+ * The read-through cache sits above the write-behind buffers, so its invalidations follow
+ * acknowledged appends; events are published once every layer below has taken the write.
+ */
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    @Primary
+    public BlueprintPersistence blueprintPersistence(ObjectProvider<PostgresBlueprintPersistence> postgres,
+                                                     ObjectProvider<PackedBlueprintPersistence> packed,
+                                                     ObjectProvider<DurableBlueprintPersistence> durable,
+                                                     ObjectProvider<WriteBehindBlueprintPersistence> writeBehind,
+                                                     ObjectProvider<CachingBlueprintPersistence> cache,
+                                                     BlueprintEventHub events,
+                                                     MeterRegistry meters) {
+        BlueprintPersistence backend = cache.getIfAvailable(() -> writes(postgres, packed, durable, writeBehind));
+        return new MeteredBlueprintPersistence(new EventPublishingBlueprintPersistence(backend, events), meters);
+    }
+
+    @Bean
+    @Profile("cache")
+    public CachingBlueprintPersistence cachingBlueprintPersistence(
+            ObjectProvider<PostgresBlueprintPersistence> postgres,
+            ObjectProvider<PackedBlueprintPersistence> packed,
+            ObjectProvider<DurableBlueprintPersistence> durable,
+            ObjectProvider<WriteBehindBlueprintPersistence> writeBehind,
+            @Value("${blueprints.cache.max-points:1000000}") long maxPoints,
+            @Value("${blueprints.cache.ttl:60s}") Duration ttl) {
+        return new CachingBlueprintPersistence(writes(postgres, packed, durable, writeBehind), maxPoints, ttl);
+    }
+
+    // Closed before the store and its data source, so the last buffered points are written.
+    @Bean(destroyMethod = "close")
+    @Profile("write-behind")
+    public WriteBehindBlueprintPersistence writeBehindBlueprintPersistence(
+            ObjectProvider<PostgresBlueprintPersistence> postgres,
+            ObjectProvider<PackedBlueprintPersistence> packed,
+            ObjectProvider<DurableBlueprintPersistence> durable,
+            MeterRegistry meters,
+            @Value("${blueprints.write-behind.batch-size:500}") int batchSize,
+            @Value("${blueprints.write-behind.max-pending:5000}") int maxPending,
+            @Value("${blueprints.write-behind.flush-interval:20ms}") Duration flushInterval) {
+        return new WriteBehindBlueprintPersistence(store(postgres, packed, durable), batchSize, maxPending,
+                flushInterval, meters);
+    }
+
+    // Recovers the in-memory store while the context starts; closed after the decorators above it.
+    // The store starts without the sample blueprints: they are not in the log, so they would
+    // come back on every start.
+    @Bean(destroyMethod = "close")
+    @Profile("durable")
+    public DurableBlueprintPersistence durableBlueprintPersistence(
+            @Value("${blueprints.durable.dir:data}") String dir,
+            @Value("${blueprints.durable.fsync:true}") boolean fsync,
+            @Value("${blueprints.durable.snapshot-log-bytes:67108864}") long snapshotLogBytes,
+            @Value("${blueprints.durable.snapshot-check-interval:10s}") Duration snapshotCheck) throws IOException {
+        return new DurableBlueprintPersistence(new InMemoryBlueprintPersistence(false), Path.of(dir), fsync,
+                snapshotLogBytes, snapshotCheck);
+    }
+
+    private static BlueprintPersistence writes(ObjectProvider<PostgresBlueprintPersistence> postgres,
+                                               ObjectProvider<PackedBlueprintPersistence> packed,
+                                               ObjectProvider<DurableBlueprintPersistence> durable,
+                                               ObjectProvider<WriteBehindBlueprintPersistence> writeBehind) {
+        return writeBehind.getIfAvailable(() -> store(postgres, packed, durable));
+    }
+
+    private static BlueprintPersistence store(ObjectProvider<PostgresBlueprintPersistence> postgres,
+                                              ObjectProvider<PackedBlueprintPersistence> packed,
+                                              ObjectProvider<DurableBlueprintPersistence> durable) {
+        return durable.getIfAvailable(() -> packed.getIfAvailable(postgres::getObject));
+    }
+}
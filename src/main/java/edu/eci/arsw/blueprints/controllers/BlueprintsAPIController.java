@@ -1,8 +1,23 @@
 package edu.eci.arsw.blueprints.controllers;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -12,35 +27,153 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import edu.eci.arsw.blueprints.dto.ApiResponse;
+import edu.eci.arsw.blueprints.dto.BulkItemResult;
+import edu.eci.arsw.blueprints.dto.NewBlueprintRequest;
+import edu.eci.arsw.blueprints.events.BlueprintEvent;
+import edu.eci.arsw.blueprints.events.BlueprintEventHub;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointRange;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache.Format;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache.Rendered;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
-import jakarta.validation.constraints.NotBlank;
 
 @RestController
 @RequestMapping("/api/v1/blueprints")
 public class BlueprintsAPIController {
 
+    static final String NDJSON = "application/x-ndjson";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_POINTS_PAGE = 1000;
+    private static final int MAX_POINTS_PAGE = 10_000;
+    private static final int BULK_CHUNK = 1000;
+    private static final String EPOCH = Long.toString(System.currentTimeMillis(), 36);
+
     private final BlueprintsServices services;
+    private final BlueprintResponseCache responses;
+    private final ObjectWriter ndjsonWriter;
+    private final ObjectReader ndjsonRequestReader;
+    private final ObjectReader ndjsonPointReader;
+    private final BlueprintEventHub events;
+    private final long eventsTimeoutMillis;
 
-    public BlueprintsAPIController(BlueprintsServices services) { this.services = services; }
+    /**
+     * @param eventsTimeout how long an event stream stays open; clients such as
+     *                      {@code EventSource} reconnect on their own
+     */
+    public BlueprintsAPIController(BlueprintsServices services, BlueprintResponseCache responses, ObjectMapper mapper,
+                                   BlueprintEventHub events,
+                                   @Value("${blueprints.events.timeout:30m}") Duration eventsTimeout) {
+        this.services = services;
+        this.responses = responses;
+        this.events = events;
+        this.eventsTimeoutMillis = eventsTimeout.toMillis();
+        this.ndjsonWriter = mapper.writerFor(Blueprint.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.ndjsonRequestReader = mapper.readerFor(NewBlueprintRequest.class);
+        this.ndjsonPointReader = mapper.readerFor(Point.class);
+    }
 
-    // GET /blueprints
+    // GET /blueprints[?after=author:name&limit=N]
     @GetMapping
-    @Operation(summary = "Obtener todos los blueprints")
+    @Operation(summary = "Obtener todos los blueprints, opcionalmente paginados por cursor (after=author:name, limit)")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Cursor o límite inválido")
+    })
+    public ResponseEntity<ApiResponse<Collection<Blueprint>>> getAll(@RequestParam(required = false) String after,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     WebRequest request) {
+        if (after == null && limit == null) {
+            if (request.checkNotModified(etag(services.getCatalogVersion()))) return null;
+            Set<Blueprint> data = services.getAllBlueprints();
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(200, "execute ok", data));
+        }
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        int sep = after == null ? -1 : after.indexOf(':');
+        if (size < 1 || size > MAX_PAGE_SIZE || (after != null && sep < 0)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(400, "invalid request", null));
+        }
+        if (request.checkNotModified(etag(services.getCatalogVersion()))) return null;
+        List<Blueprint> page = after == null
+                ? services.getBlueprintsPage(null, null, size)
+                : services.getBlueprintsPage(after.substring(0, sep), after.substring(sep + 1), size);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (page.size() == size) {
+            Blueprint last = page.get(size - 1);
+            ok.header(NEXT_CURSOR_HEADER, last.getAuthor() + ":" + last.getName());
+        }
+        return ok.body(new ApiResponse<>(200, "execute ok", page));
+    }
+
+    // The version is read before the data, so a write racing the request can only make the tag
+    // older than the body (an extra 200 later), never newer. Tags are per URL, so query
+    // parameters such as filters or the cursor need not be part of them; the representations
+    // negotiated by Accept carry the same data, hence weak tags plus Vary. In-memory versions
+    // restart at 0, so the tag also names the process: a tag from an earlier run never matches.
+    private static String etag(long version) {
+        return "W/\"" + EPOCH + "-" + version + "\"";
+    }
+
+    // GET /blueprints?bbox=minX,minY,maxX,maxY
+    @GetMapping(params = "bbox")
+    @Operation(summary = "Obtener los blueprints con al menos un punto dentro del rectángulo bbox=minX,minY,maxX,maxY")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa")
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "bbox inválido")
     })
-    public ResponseEntity<ApiResponse<Set<Blueprint>>> getAll() {
-        Set<Blueprint> data = services.getAllBlueprints();
-        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", data));
+    public ResponseEntity<ApiResponse<Set<Blueprint>>> inBox(@RequestParam String bbox, WebRequest request) {
+        BoundingBox box;
+        try {
+            box = BoundingBox.parse(bbox);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(400, "invalid bbox: " + e.getMessage(), null));
+        }
+        if (request.checkNotModified(etag(services.getCatalogVersion()))) return null;
+        Set<Blueprint> data = services.getBlueprintsInBox(box);
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(200, "execute ok", data));
+    }
+
+    // GET /blueprints (Accept: application/x-ndjson)
+    @GetMapping(produces = NDJSON)
+    @Operation(summary = "Transmitir todos los blueprints como NDJSON, uno por línea")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> services.forEachBlueprint(bp -> {
+            try {
+                ndjsonWriter.writeValue(out, bp);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     // GET /blueprints/{author}
@@ -48,32 +181,189 @@ public class BlueprintsAPIController {
     @Operation(summary = "Obtener blueprints por autor")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Autor sin blueprints")
     })
-    public ResponseEntity<ApiResponse<Set<Blueprint>>> byAuthor(@PathVariable String author) {
+    public ResponseEntity<ApiResponse<Set<Blueprint>>> byAuthor(@PathVariable String author, WebRequest request) {
+        long version = services.getAuthorVersion(author);
+        // Version 0 means no blueprints: fall through to the 404 without an ETag.
+        if (version != 0 && request.checkNotModified(etag(version))) return null;
         try {
             Set<Blueprint> data = services.getBlueprintsByAuthor(author);
-            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", data));
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(200, "execute ok", data));
         } catch (BlueprintNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse<>(404, e.getMessage(), null));
         }
     }
 
-    // GET /blueprints/{author}/{bpname}
+    // GET /blueprints/{author} (Accept: text/event-stream)
+    @GetMapping(value = "/{author}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse (SSE) a los blueprints creados y los puntos agregados de un autor, aunque aún no tenga blueprints")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Flujo de eventos"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Demasiados suscriptores")
+    })
+    public ResponseEntity<SseEmitter> watchAuthor(@PathVariable String author) {
+        return watch(author, null);
+    }
+
+    // GET /blueprints/{author}?view=summary
+    @GetMapping(value = "/{author}", params = "view=summary")
+    @Operation(summary = "Obtener el resumen (puntos, límites, longitud y perímetro) de los blueprints de un autor, sin sus puntos")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Autor sin blueprints")
+    })
+    public ResponseEntity<ApiResponse<List<BlueprintSummary>>> summariesByAuthor(@PathVariable String author,
+                                                                                 WebRequest request) {
+        long version = services.getAuthorVersion(author);
+        if (version != 0 && request.checkNotModified(etag(version))) return null;
+        try {
+            List<BlueprintSummary> data = services.getSummariesByAuthor(author);
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(200, "execute ok", data));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    // GET /blueprints/{author}/{bpname}?view=summary
+    @GetMapping(value = "/{author}/{bpname}", params = "view=summary")
+    @Operation(summary = "Obtener el resumen (puntos, límites, longitud y perímetro) de un blueprint, sin sus puntos")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Blueprint no encontrado")
+    })
+    public ResponseEntity<ApiResponse<BlueprintSummary>> summary(@PathVariable String author, @PathVariable String bpname,
+                                                                 WebRequest request) {
+        try {
+            if (request.checkNotModified(etag(services.getBlueprintVersion(author, bpname)))) return null;
+            BlueprintSummary data = services.getBlueprintSummary(author, bpname);
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(200, "execute ok", data));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    // GET /blueprints/{author}/{bpname}/points?since=N&limit=M
+    @GetMapping("/{author}/{bpname}/points")
+    @Operation(summary = "Obtener los puntos [since, since + limit) de un blueprint, para sincronizarlo por partes")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "since o límite inválido"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Blueprint no encontrado")
+    })
+    public ResponseEntity<ApiResponse<PointRange>> points(@PathVariable String author, @PathVariable String bpname,
+                                                          @RequestParam(defaultValue = "0") int since,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          WebRequest request) {
+        int size = limit == null ? DEFAULT_POINTS_PAGE : limit;
+        if (since < 0 || size < 1 || size > MAX_POINTS_PAGE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(400, "invalid request", null));
+        }
+        try {
+            if (request.checkNotModified(etag(services.getBlueprintVersion(author, bpname)))) return null;
+            PointRange data = services.getPoints(author, bpname, since, size);
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(new ApiResponse<>(200, "execute ok", data));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    // GET /blueprints/{author}/{bpname}[?filters=a,b]
     @GetMapping("/{author}/{bpname}")
-    @Operation(summary = "Obtener blueprint por autor y nombre")
+    @Operation(summary = "Obtener blueprint por autor y nombre, opcionalmente con una cadena de filtros (filters=redundancy,undersampling)")
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Sin cambios desde el ETag enviado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Filtro desconocido"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Blueprint no encontrado")
     })
-    public ResponseEntity<ApiResponse<Blueprint>> byAuthorAndName(@PathVariable String author, @PathVariable String bpname) {
+    public ResponseEntity<?> byAuthorAndName(@PathVariable String author, @PathVariable String bpname,
+                                             @RequestParam(required = false) List<String> filters,
+                                             WebRequest request) {
         try {
-            Blueprint bp = services.getBlueprint(author, bpname);
-            return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", bp));
+            // A bad filter list is a 400 even when the tag matches.
+            services.checkFilters(filters);
+            long version = services.getBlueprintVersion(author, bpname);
+            if (request.checkNotModified(etag(version))) return null;
+            Format format = Format.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+            if (format == null) {
+                // Neither format is acceptable: let content negotiation answer 406.
+                Blueprint bp = services.getBlueprint(author, bpname, filters);
+                return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", bp));
+            }
+            Rendered rendered = responses.render(author, bpname, filters, version, format,
+                    BlueprintResponseCache.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)));
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(rendered.contentType());
+            if (rendered.gzipped()) ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return ok.body(rendered.body());
         } catch (BlueprintNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ApiResponse<>(404, e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(400, e.getMessage(), null));
+        }
+    }
+
+    // GET /blueprints/{author}/{bpname} (Accept: text/event-stream)
+    @GetMapping(value = "/{author}/{bpname}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribirse (SSE) a los puntos agregados a un blueprint")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Flujo de eventos"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Blueprint no encontrado"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Demasiados suscriptores")
+    })
+    public ResponseEntity<SseEmitter> watchBlueprint(@PathVariable String author, @PathVariable String bpname) {
+        try {
+            services.getBlueprintVersion(author, bpname);
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return watch(author, bpname);
+    }
+
+    // The request thread returns at once: an open stream holds no thread until the hub sends.
+    private ResponseEntity<SseEmitter> watch(String author, String name) {
+        SseEmitter emitter = new SseEmitter(eventsTimeoutMillis);
+        BlueprintEventHub.Subscription subscription;
+        try {
+            subscription = events.subscribe(author, name, new SseSink(emitter));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        return ResponseEntity.ok(emitter);
+    }
+
+    // One SSE event named "events" per batch, its data a JSON array of BlueprintEvent.
+    private record SseSink(SseEmitter emitter) implements BlueprintEventHub.Sink {
+
+        @Override
+        public void send(List<BlueprintEvent> batch) throws IOException {
+            emitter.send(SseEmitter.event().name("events").data(batch, MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
         }
     }
 
@@ -86,6 +376,7 @@ public class BlueprintsAPIController {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Blueprint duplicado")
     })
     public ResponseEntity<ApiResponse<Void>> add(@Valid @RequestBody NewBlueprintRequest req) {
+        if (hasNullPoint(req.points())) return invalidPoint("null in points");
         try {
             Blueprint bp = new Blueprint(req.author(), req.name(), req.points());
             services.addNewBlueprint(bp);
@@ -97,6 +388,81 @@ public class BlueprintsAPIController {
         }
     }
 
+    // POST /blueprints/bulk (JSON array)
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Crear muchos blueprints en una sola petición (arreglo JSON)")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Resultado por elemento: created, duplicate o invalid")
+    })
+    public ResponseEntity<ApiResponse<List<BulkItemResult>>> addBulk(@RequestBody List<NewBlueprintRequest> reqs) {
+        return ResponseEntity.ok(new ApiResponse<>(200, "bulk import processed", importAll(reqs.iterator())));
+    }
+
+    // POST /blueprints/bulk (NDJSON, read and inserted chunk by chunk)
+    @PostMapping(value = "/bulk", consumes = NDJSON)
+    @Operation(summary = "Crear muchos blueprints en una sola petición (NDJSON, un blueprint por línea)")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Resultado por línea: created, duplicate o invalid")
+    })
+    public ResponseEntity<ApiResponse<List<BulkItemResult>>> addBulkNdjson(InputStream body) throws IOException {
+        // Parsed line by line, so a malformed line is one invalid item and the lines after it
+        // are still imported.
+        BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        try {
+            Iterator<NewBlueprintRequest> reqs = lines.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(this::parseRequestLine)
+                    .iterator();
+            return ResponseEntity.ok(new ApiResponse<>(200, "bulk import processed", importAll(reqs)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // null for a line that is not a blueprint, which importAll reports as invalid.
+    private NewBlueprintRequest parseRequestLine(String line) {
+        try {
+            return ndjsonRequestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    // Results keep request order; valid items are saved BULK_CHUNK at a time.
+    private List<BulkItemResult> importAll(Iterator<NewBlueprintRequest> reqs) {
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Blueprint> chunk = new ArrayList<>(BULK_CHUNK);
+        List<Integer> slots = new ArrayList<>(BULK_CHUNK);
+        while (reqs.hasNext()) {
+            NewBlueprintRequest req = reqs.next();
+            if (req == null || isBlank(req.author()) || isBlank(req.name()) || hasNullPoint(req.points())) {
+                results.add(new BulkItemResult(req == null ? null : req.author(), req == null ? null : req.name(), "invalid"));
+                continue;
+            }
+            slots.add(results.size());
+            results.add(null);
+            chunk.add(new Blueprint(req.author(), req.name(), req.points()));
+            if (chunk.size() == BULK_CHUNK) saveChunk(chunk, slots, results);
+        }
+        saveChunk(chunk, slots, results);
+        return results;
+    }
+
+    private void saveChunk(List<Blueprint> chunk, List<Integer> slots, List<BulkItemResult> results) {
+        if (chunk.isEmpty()) return;
+        List<Boolean> created = services.addNewBlueprints(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            Blueprint bp = chunk.get(i);
+            results.set(slots.get(i), new BulkItemResult(bp.getAuthor(), bp.getName(), created.get(i) ? "created" : "duplicate"));
+        }
+        chunk.clear();
+        slots.clear();
+    }
+
+    private static boolean isBlank(String s) { return s == null || s.isBlank(); }
+
+    private static boolean hasNullPoint(List<Point> points) { return points != null && points.contains(null); }
+
     // PUT /blueprints/{author}/{bpname}/points
     @PutMapping("/{author}/{bpname}/points")
         @Operation(summary = "Agregar un punto a un blueprint")
@@ -116,15 +482,73 @@ public class BlueprintsAPIController {
         }
     }
 
+    // POST /blueprints/{author}/{bpname}/points (JSON array)
+    @PostMapping(value = "/{author}/{bpname}/points", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Agregar muchos puntos a un blueprint en una sola escritura (arreglo JSON): se agregan todos o ninguno")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Puntos agregados"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Punto nulo"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Blueprint no encontrado")
+    })
+    public ResponseEntity<ApiResponse<Void>> addPoints(@PathVariable String author, @PathVariable String bpname,
+                                                       @RequestBody List<Point> points) {
+        int[] xy = new int[points.size() * 2];
+        for (int i = 0; i < points.size(); i++) {
+            Point p = points.get(i);
+            if (p == null) return invalidPoint("null at index " + i);
+            xy[i * 2] = p.x();
+            xy[i * 2 + 1] = p.y();
+        }
+        return appendAll(author, bpname, xy);
+    }
+
+    // POST /blueprints/{author}/{bpname}/points (NDJSON, one point per line)
+    @PostMapping(value = "/{author}/{bpname}/points", consumes = NDJSON)
+    @Operation(summary = "Agregar muchos puntos a un blueprint en una sola escritura (NDJSON, un punto por línea)")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Puntos agregados"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Línea inválida"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Blueprint no encontrado")
+    })
+    public ResponseEntity<ApiResponse<Void>> addPointsNdjson(@PathVariable String author, @PathVariable String bpname,
+                                                             InputStream body) throws IOException {
+        // Read straight into one coordinate array: no Point is kept per line.
+        int[] xy = new int[64];
+        int n = 0;
+        try (MappingIterator<Point> points = ndjsonPointReader.readValues(body)) {
+            while (points.hasNextValue()) {
+                Point p = points.nextValue();
+                if (p == null) return invalidPoint("null at line " + (n / 2 + 1));
+                if (n == xy.length) xy = Arrays.copyOf(xy, n * 2);
+                xy[n++] = p.x();
+                xy[n++] = p.y();
+            }
+        } catch (JsonProcessingException e) {
+            return invalidPoint(e.getOriginalMessage());
+        }
+        return appendAll(author, bpname, Arrays.copyOf(xy, n));
+    }
+
+    // One write for the whole request: every point is added or none is.
+    private ResponseEntity<ApiResponse<Void>> appendAll(String author, String bpname, int[] xy) {
+        try {
+            services.addPoints(author, bpname, xy);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new ApiResponse<>(202, xy.length / 2 + " points added", null));
+        } catch (BlueprintNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ApiResponse<>(404, e.getMessage(), null));
+        }
+    }
+
+    private static ResponseEntity<ApiResponse<Void>> invalidPoint(String reason) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse<>(400, "invalid point: " + reason, null));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Void>> handleValidationError(MethodArgumentNotValidException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(new ApiResponse<>(400, "invalid request", null));
     }
-
-    public record NewBlueprintRequest(
-            @NotBlank String author,
-            @NotBlank String name,
-            @Valid java.util.List<Point> points
-    ) { }
 }
@@ -0,0 +1,28 @@
+package edu.eci.arsw.blueprints.controllers;
+
+import edu.eci.arsw.blueprints.cache.WeightedLruCache;
+import edu.eci.arsw.blueprints.dto.ApiResponse;
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/cache")
+@Profile("cache")
+public class CacheStatsController {
+
+    private final CachingBlueprintPersistence cache;
+
+    public CacheStatsController(CachingBlueprintPersistence cache) { this.cache = cache; }
+
+    // GET /cache/stats
+    @GetMapping("/stats")
+    @Operation(summary = "Contadores del caché de blueprints (hits, misses, evictions)")
+    public ResponseEntity<ApiResponse<WeightedLruCache.Stats>> stats() {
+        return ResponseEntity.ok(new ApiResponse<>(200, "execute ok", cache.stats()));
+    }
+}
@@ -1,3 +1,3 @@
-package edu.eci.arsw.blueprints.controllers;
+package edu.eci.arsw.blueprints.dto;
 
 public record ApiResponse<T>(int code, String message, T data) {}
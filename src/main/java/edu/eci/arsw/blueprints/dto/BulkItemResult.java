@@ -0,0 +1,3 @@
+package edu.eci.arsw.blueprints.dto;
+
+public record BulkItemResult(String author, String name, String status) { }
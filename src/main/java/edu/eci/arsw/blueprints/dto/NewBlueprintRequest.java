@@ -0,0 +1,13 @@
+package edu.eci.arsw.blueprints.dto;
+
+import java.util.List;
+
+import edu.eci.arsw.blueprints.model.Point;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+
+public record NewBlueprintRequest(
+        @NotBlank String author,
+        @NotBlank String name,
+        @Valid List<Point> points
+) { }
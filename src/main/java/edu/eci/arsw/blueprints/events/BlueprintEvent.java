@@ -0,0 +1,27 @@
+package edu.eci.arsw.blueprints.events;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import edu.eci.arsw.blueprints.model.Point;
+
+import java.util.List;
+
+/**
+ * One change pushed to subscribers: {@code points} appended to a blueprint (unfiltered, in
+ * append order), a blueprint {@code created} with {@code pointCount} points, or
+ * {@code overflow}, the last event a subscriber gets before it is dropped for falling behind.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BlueprintEvent(String type, String author, String name, Integer pointCount, List<Point> points) {
+
+    public static BlueprintEvent points(String author, String name, List<Point> points) {
+        return new BlueprintEvent("points", author, name, null, points);
+    }
+
+    public static BlueprintEvent created(String author, String name, int pointCount) {
+        return new BlueprintEvent("created", author, name, pointCount, null);
+    }
+
+    public static BlueprintEvent overflow() {
+        return new BlueprintEvent("overflow", null, null, null, null);
+    }
+}
@@ -0,0 +1,307 @@
+package edu.eci.arsw.blueprints.events;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Routes applied writes to live subscribers of a blueprint or of an author. Publishing never
+ * blocks and never does I/O: it queues the change on each matching subscriber, bounded by
+ * {@code bufferPoints}. A subscriber that would go past the bound is unsubscribed at once and
+ * later gets a final {@code overflow} event and is closed; it should reload and subscribe again.
+ *
+ * <p>Every {@code flushInterval} a single scheduler thread hands the subscribers with queued
+ * changes to a virtual thread each, which sends all of them as one batch, appends to the same
+ * blueprint merged into one event. Idle subscribers hold no thread, only a heartbeat every
+ * {@code heartbeat}, so a stuck client parks one virtual thread and delays no one else.
+ */
+@Component
+public class BlueprintEventHub implements AutoCloseable {
+
+    /** Where a subscriber's batches go; called by one thread at a time per subscriber. */
+    public interface Sink {
+        void send(List<BlueprintEvent> events) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        void close();
+    }
+
+    // A null name is every blueprint of the author.
+    private record Topic(String author, String name) { }
+
+    // An append keeps the caller's coordinates; a creation has none and weighs one.
+    private record Change(String author, String name, int[] xy, int pointCount) {
+        int weight() { return xy == null ? 1 : xy.length / 2; }
+    }
+
+    private final int bufferPoints;
+    private final int maxSubscribers;
+    private final ConcurrentHashMap<Topic, Set<Subscription>> topics = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final ConcurrentLinkedQueue<Subscription> ready = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * @param bufferPoints   points (a creation counts as one) queued per subscriber before it is dropped
+     * @param flushInterval  how long changes wait to be batched
+     * @param heartbeat      how often idle subscribers get a keep-alive
+     * @param maxSubscribers live subscriptions allowed at once
+     */
+    public BlueprintEventHub(@Value("${blueprints.events.buffer-points:100000}") int bufferPoints,
+                             @Value("${blueprints.events.flush-interval:100ms}") Duration flushInterval,
+                             @Value("${blueprints.events.heartbeat:30s}") Duration heartbeat,
+                             @Value("${blueprints.events.max-subscribers:10000}") int maxSubscribers,
+                             MeterRegistry meters) {
+        this.bufferPoints = bufferPoints;
+        this.maxSubscribers = maxSubscribers;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "blueprints-events");
+            t.setDaemon(true);
+            return t;
+        });
+        long flushNanos = flushInterval.toNanos();
+        scheduler.scheduleWithFixedDelay(this::sendReady, flushNanos, flushNanos, TimeUnit.NANOSECONDS);
+        long heartbeatNanos = heartbeat.toNanos();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatNanos, heartbeatNanos, TimeUnit.NANOSECONDS);
+        Gauge.builder("blueprints.events.subscribers", subscriptions, Set::size).register(meters);
+        FunctionCounter.builder("blueprints.events.dropped", dropped, AtomicLong::get).register(meters);
+    }
+
+    /**
+     * Subscribes {@code sink} to the changes of one blueprint, or of every blueprint of
+     * {@code author} when {@code name} is {@code null}.
+     *
+     * @throws IllegalStateException if {@code maxSubscribers} subscriptions are already live
+     */
+    public Subscription subscribe(String author, String name, Sink sink) {
+        Subscription s = new Subscription(new Topic(author, name), sink);
+        subscriptions.add(s);
+        if (subscriptions.size() > maxSubscribers) {
+            subscriptions.remove(s);
+            throw new IllegalStateException("Too many subscribers (" + maxSubscribers + ")");
+        }
+        topics.compute(s.topic, (t, subs) -> {
+            if (subs == null) subs = ConcurrentHashMap.newKeySet();
+            subs.add(s);
+            return subs;
+        });
+        return s;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    public void pointAdded(String author, String name, int x, int y) {
+        if (subscriptions.isEmpty()) return;
+        publish(new Change(author, name, new int[] {x, y}, 1));
+    }
+
+    /** {@code xy} is kept until every subscriber has been sent it, so it must not change afterwards. */
+    public void pointsAdded(String author, String name, int[] xy) {
+        if (subscriptions.isEmpty() || xy.length == 0) return;
+        publish(new Change(author, name, xy, xy.length / 2));
+    }
+
+    public void blueprintCreated(Blueprint bp) {
+        if (subscriptions.isEmpty()) return;
+        publish(new Change(bp.getAuthor(), bp.getName(), null, bp.pointCount()));
+    }
+
+    private void publish(Change change) {
+        offer(topics.get(new Topic(change.author(), change.name())), change);
+        offer(topics.get(new Topic(change.author(), null)), change);
+    }
+
+    private static void offer(Set<Subscription> subs, Change change) {
+        if (subs == null) return;
+        for (Subscription s : subs) s.offer(change);
+    }
+
+    private void sendReady() {
+        try {
+            for (Subscription s; (s = ready.poll()) != null; ) senders.execute(s::send);
+        } catch (RejectedExecutionException e) {
+            // Closing.
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscription s : subscriptions) s.ping();
+    }
+
+    /** Stops the scheduler and closes every subscriber; queued changes are not sent. */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        for (Subscription s : subscriptions) s.close();
+        senders.shutdown();
+    }
+
+    // Adjacent appends to the same blueprint become one event.
+    private static List<BlueprintEvent> merge(List<Change> changes) {
+        List<BlueprintEvent> events = new ArrayList<>();
+        for (int i = 0; i < changes.size(); ) {
+            Change c = changes.get(i);
+            if (c.xy() == null) {
+                events.add(BlueprintEvent.created(c.author(), c.name(), c.pointCount()));
+                i++;
+                continue;
+            }
+            List<Point> points = new ArrayList<>();
+            for (; i < changes.size(); i++) {
+                Change next = changes.get(i);
+                if (next.xy() == null || !next.author().equals(c.author()) || !next.name().equals(c.name())) break;
+                int[] xy = next.xy();
+                for (int j = 0; j < xy.length; j += 2) points.add(new Point(xy[j], xy[j + 1]));
+            }
+            events.add(BlueprintEvent.points(c.author(), c.name(), points));
+        }
+        return events;
+    }
+
+    /** A live subscriber; closing it unsubscribes and closes its sink. */
+    public final class Subscription implements AutoCloseable {
+
+        private final Topic topic;
+        private final Sink sink;
+        // Guards everything below. A subscription is in the ready queue or being sent at most
+        // once (scheduled), so its batches go out one at a time and in order.
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ArrayDeque<Change> queue = new ArrayDeque<>();
+        private int queuedPoints;
+        private boolean overflowed;
+        private boolean ping;
+        private boolean scheduled;
+        private boolean closed;
+
+        private Subscription(Topic topic, Sink sink) {
+            this.topic = topic;
+            this.sink = sink;
+        }
+
+        private void offer(Change change) {
+            boolean dropNow = false;
+            lock.lock();
+            try {
+                if (closed || overflowed) return;
+                if (queuedPoints + change.weight() > bufferPoints) {
+                    overflowed = dropNow = true;
+                    queue.clear();
+                    queuedPoints = 0;
+                } else {
+                    queue.add(change);
+                    queuedPoints += change.weight();
+                }
+                schedule();
+            } finally {
+                lock.unlock();
+            }
+            // Only leaves the routing tables: the sink may be stuck in a send, so closing it
+            // is left to the sender.
+            if (dropNow) {
+                dropped.incrementAndGet();
+                unsubscribe();
+            }
+        }
+
+        private void ping() {
+            lock.lock();
+            try {
+                if (closed) return;
+                ping = true;
+                schedule();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Caller holds lock.
+        private void schedule() {
+            if (scheduled) return;
+            scheduled = true;
+            ready.add(this);
+        }
+
+        private void send() {
+            List<Change> batch;
+            boolean overflow, keepAlive;
+            lock.lock();
+            try {
+                batch = new ArrayList<>(queue);
+                queue.clear();
+                queuedPoints = 0;
+                overflow = overflowed;
+                keepAlive = ping;
+                ping = false;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                if (overflow) {
+                    sink.send(List.of(BlueprintEvent.overflow()));
+                    close();
+                } else if (!batch.isEmpty()) {
+                    sink.send(merge(batch));
+                } else if (keepAlive) {
+                    sink.heartbeat();
+                }
+            } catch (IOException | RuntimeException e) {
+                // The client went away.
+                close();
+            }
+            lock.lock();
+            try {
+                scheduled = false;
+                if (!closed && (overflowed || !queue.isEmpty())) schedule();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (closed) return;
+                closed = true;
+                queue.clear();
+            } finally {
+                lock.unlock();
+            }
+            unsubscribe();
+            sink.close();
+        }
+
+        private void unsubscribe() {
+            subscriptions.remove(this);
+            topics.computeIfPresent(topic, (t, subs) -> {
+                subs.remove(this);
+                return subs.isEmpty() ? null : subs;
+            });
+        }
+    }
+}
@@ -4,4 +4,29 @@ import edu.eci.arsw.blueprints.model.Blueprint;
 
 public interface BlueprintsFilter {
     Blueprint apply(Blueprint bp);
+
+    /** Tag of this filter's {@code blueprints.filter} timer. */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Streaming form used by {@link FilterChain}: points go in one at a time and the ones that
+     * survive are pushed to {@code downstream}. The default buffers the whole input and runs
+     * {@link #apply}, for filters that need to see every point first.
+     */
+    default PointSink stage(PointSink downstream) {
+        Blueprint.Builder buffer = Blueprint.builder(null, null, 0);
+        return new PointSink() {
+            @Override
+            public void accept(int x, int y) { buffer.add(x, y); }
+
+            @Override
+            public void end() {
+                Blueprint out = apply(buffer.build());
+                for (int i = 0, n = out.pointCount(); i < n; i++) downstream.accept(out.xAt(i), out.yAt(i));
+                downstream.end();
+            }
+        };
+    }
 }
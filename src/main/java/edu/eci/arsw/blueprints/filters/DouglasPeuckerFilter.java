@@ -0,0 +1,154 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simplificación Ramer–Douglas–Peucker: elimina los puntos que se desvían menos de
+ * {@code tolerance} de la recta entre sus vecinos conservados, preservando la forma.
+ * Los segmentos con más de {@code parallelThreshold} puntos se dividen en el ForkJoinPool común.
+ * Perfil: "simplify"
+ */
+@Component
+@Profile("simplify")
+public class DouglasPeuckerFilter implements BlueprintsFilter {
+
+    static final double DEFAULT_TOLERANCE = 1.0;
+    static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
+
+    private final double tolerance;
+    private final int parallelThreshold;
+
+    public DouglasPeuckerFilter() {
+        this(DEFAULT_TOLERANCE, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    @Autowired
+    public DouglasPeuckerFilter(@Value("${blueprints.filters.simplify.tolerance:1.0}") double tolerance,
+                                @Value("${blueprints.filters.simplify.parallel-threshold:50000}") int parallelThreshold) {
+        this.tolerance = tolerance;
+        this.parallelThreshold = Math.max(2, parallelThreshold);
+    }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        int n = bp.pointCount();
+        if (n < 3) return bp;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = bp.xAt(i);
+            ys[i] = bp.yAt(i);
+        }
+        boolean[] keep = new boolean[n];
+        keep[0] = true;
+        keep[n - 1] = true;
+        Split root = new Split(xs, ys, keep, 0, n - 1);
+        if (n > parallelThreshold) ForkJoinPool.commonPool().invoke(root);
+        else root.simplifySequential(0, n - 1);
+
+        int kept = 0;
+        for (boolean k : keep) if (k) kept++;
+        Blueprint.Builder out = Blueprint.builder(bp.getAuthor(), bp.getName(), kept);
+        for (int i = 0; i < n; i++) {
+            if (keep[i]) out.add(xs[i], ys[i]);
+        }
+        return out.build();
+    }
+
+    // Tasks write keep[] at disjoint indices; join publishes them.
+    private final class Split extends RecursiveAction {
+        private final int[] xs, ys;
+        private final boolean[] keep;
+        private final int first, last;
+
+        Split(int[] xs, int[] ys, boolean[] keep, int first, int last) {
+            this.xs = xs;
+            this.ys = ys;
+            this.keep = keep;
+            this.first = first;
+            this.last = last;
+        }
+
+        // Only the larger side of each split stays in this loop; the smaller one is forked if it
+        // is still above the threshold, else simplified inline. Forked segments are at most half
+        // of their parent, so nesting stays logarithmic even when every split is lopsided.
+        @Override
+        protected void compute() {
+            List<Split> forked = new ArrayList<>();
+            int a = first, b = last;
+            while (b - a > parallelThreshold) {
+                int split = farthest(a, b);
+                if (split < 0) break;
+                keep[split] = true;
+                boolean leftLarger = split - a >= b - split;
+                int from = leftLarger ? split : a, to = leftLarger ? b : split;
+                if (to - from > parallelThreshold) {
+                    Split side = new Split(xs, ys, keep, from, to);
+                    side.fork();
+                    forked.add(side);
+                } else {
+                    simplifySequential(from, to);
+                }
+                if (leftLarger) b = split;
+                else a = split;
+            }
+            if (b - a <= parallelThreshold) simplifySequential(a, b);
+            for (int i = forked.size() - 1; i >= 0; i--) forked.get(i).join();
+        }
+
+        // Explicit stack: recursion depth can reach the segment length on spiral-like input.
+        void simplifySequential(int from, int to) {
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = from;
+            stack[top++] = to;
+            while (top > 0) {
+                int b = stack[--top];
+                int a = stack[--top];
+                int split = farthest(a, b);
+                if (split < 0) continue;
+                keep[split] = true;
+                if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[top++] = a;
+                stack[top++] = split;
+                stack[top++] = split;
+                stack[top++] = b;
+            }
+        }
+
+        /** Index strictly between a and b farthest from segment a-b, or -1 if all are within tolerance. */
+        int farthest(int a, int b) {
+            double ax = xs[a], ay = ys[a];
+            double dx = xs[b] - ax, dy = ys[b] - ay;
+            double len2 = dx * dx + dy * dy;
+            double limit = tolerance * tolerance;
+            double best = limit;
+            int bestIndex = -1;
+            for (int i = a + 1; i < b; i++) {
+                double px = xs[i] - ax, py = ys[i] - ay;
+                double d2;
+                if (len2 == 0) {
+                    d2 = px * px + py * py;
+                } else {
+                    double cross = dx * py - dy * px;
+                    d2 = cross * cross / len2;
+                }
+                if (d2 > best) {
+                    best = d2;
+                    bestIndex = i;
+                }
+            }
+            return bestIndex;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package edu.eci.arsw.blueprints.filters;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Several filters applied as one: the stages are linked into a single sink pipeline and the
+ * input points are pushed through it in one pass, so no intermediate blueprint is built
+ * between stages.
+ */
+public class FilterChain implements BlueprintsFilter {
+
+    private final List<BlueprintsFilter> filters;
+    private final String name;
+
+    public FilterChain(List<BlueprintsFilter> filters) {
+        this.filters = List.copyOf(filters);
+        StringJoiner stages = new StringJoiner("+");
+        for (BlueprintsFilter f : this.filters) stages.add(f.name());
+        this.name = stages.toString();
+    }
+
+    /**
+     * The stage names in order, e.g. {@code RedundancyFilter+UndersamplingFilter}: the stages
+     * run fused, point by point, so their times cannot be told apart without timing every point.
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Blueprint apply(Blueprint bp) {
+        int n = bp.pointCount();
+        Blueprint.Builder out = Blueprint.builder(bp.getAuthor(), bp.getName(), n);
+        PointSink head = stage(out::add);
+        for (int i = 0; i < n; i++) head.accept(bp.xAt(i), bp.yAt(i));
+        head.end();
+        return out.build();
+    }
+
+    @Override
+    public PointSink stage(PointSink downstream) {
+        PointSink sink = downstream;
+        for (int i = filters.size() - 1; i >= 0; i--) sink = filters.get(i).stage(sink);
+        return sink;
+    }
+}
@@ -0,0 +1,49 @@
+package edu.eci.arsw.blueprints.filters;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filters that clients can name per request (e.g. {@code ?filters=redundancy,undersampling}),
+ * independently of the profile-selected default filter.
+ */
+@Component
+public class FilterRegistry {
+
+    // Chains are timer tags (see FilterChain#name), so their number must stay bounded.
+    static final int MAX_STAGES = 4;
+
+    private final Map<String, BlueprintsFilter> filters;
+
+    public FilterRegistry() {
+        this(DouglasPeuckerFilter.DEFAULT_TOLERANCE, DouglasPeuckerFilter.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /** "simplify" uses the same configuration as the profile-selected Douglas-Peucker filter. */
+    @Autowired
+    public FilterRegistry(@Value("${blueprints.filters.simplify.tolerance:1.0}") double simplifyTolerance,
+                          @Value("${blueprints.filters.simplify.parallel-threshold:50000}") int simplifyParallelThreshold) {
+        this.filters = Map.of(
+                "identity", new IdentityFilter(),
+                "redundancy", new RedundancyFilter(),
+                "undersampling", new UndersamplingFilter(),
+                "simplify", new DouglasPeuckerFilter(simplifyTolerance, simplifyParallelThreshold));
+    }
+
+    /** Fused chain of the named filters, in order; unknown names and over-long chains are rejected. */
+    public BlueprintsFilter chain(List<String> names) {
+        if (names.size() > MAX_STAGES) throw new IllegalArgumentException("At most " + MAX_STAGES + " filters per request");
+        List<BlueprintsFilter> stages = new ArrayList<>(names.size());
+        for (String name : names) {
+            BlueprintsFilter f = filters.get(name.trim().toLowerCase());
+            if (f == null) throw new IllegalArgumentException("Unknown filter: " + name);
+            stages.add(f);
+        }
+        return stages.size() == 1 ? stages.get(0) : new FilterChain(stages);
+    }
+}
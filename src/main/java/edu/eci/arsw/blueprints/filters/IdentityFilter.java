@@ -1,14 +1,20 @@
 package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 /**
  * Default filter: returns the blueprint unchanged.
  * This matches the baseline behavior of the reference lab before students implement custom filters.
+ * Steps aside when a profile selects another filter, so exactly one BlueprintsFilter bean exists.
  */
 @Component
+@Profile("!redundancy & !undersampling & !simplify")
 public class IdentityFilter implements BlueprintsFilter {
     @Override
     public Blueprint apply(Blueprint bp) { return bp; }
+
+    @Override
+    public PointSink stage(PointSink downstream) { return downstream; }
 }
@@ -0,0 +1,8 @@
+package edu.eci.arsw.blueprints.filters;
+
+/** Receives a blueprint's points in order, one call per point, then {@link #end()}. */
+public interface PointSink {
+    void accept(int x, int y);
+
+    default void end() { }
+}
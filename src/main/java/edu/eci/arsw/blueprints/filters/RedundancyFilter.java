@@ -1,13 +1,9 @@
 package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
-import edu.eci.arsw.blueprints.model.Point;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Elimina puntos consecutivos duplicados (x,y) para reducir redundancia.
  * Perfil: "redundancy"
@@ -17,16 +13,40 @@ import java.util.List;
 public class RedundancyFilter implements BlueprintsFilter {
     @Override
     public Blueprint apply(Blueprint bp) {
-        List<Point> in = bp.getPoints();
-        if (in.isEmpty()) return bp;
-        List<Point> out = new ArrayList<>();
-        Point prev = null;
-        for (Point p : in) {
-            if (prev == null || !(prev.x()==p.x() && prev.y()==p.y())) {
-                out.add(p);
-                prev = p;
+        int n = bp.pointCount();
+        if (n == 0) return bp;
+        Blueprint.Builder out = Blueprint.builder(bp.getAuthor(), bp.getName(), n);
+        int px = bp.xAt(0), py = bp.yAt(0);
+        out.add(px, py);
+        for (int i = 1; i < n; i++) {
+            int x = bp.xAt(i), y = bp.yAt(i);
+            if (x != px || y != py) {
+                out.add(x, y);
+                px = x;
+                py = y;
             }
         }
-        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+        return out.build();
+    }
+
+    @Override
+    public PointSink stage(PointSink downstream) {
+        return new PointSink() {
+            private boolean first = true;
+            private int px, py;
+
+            @Override
+            public void accept(int x, int y) {
+                if (first || x != px || y != py) {
+                    downstream.accept(x, y);
+                    first = false;
+                    px = x;
+                    py = y;
+                }
+            }
+
+            @Override
+            public void end() { downstream.end(); }
+        };
     }
 }
@@ -1,13 +1,9 @@
 package edu.eci.arsw.blueprints.filters;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
-import edu.eci.arsw.blueprints.model.Point;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Undersampling: conserva 1 de cada 2 puntos (índices pares), reduciendo la densidad.
  * Perfil: "undersampling"
@@ -17,12 +13,42 @@ import java.util.List;
 public class UndersamplingFilter implements BlueprintsFilter {
     @Override
     public Blueprint apply(Blueprint bp) {
-        List<Point> in = bp.getPoints();
-        if (in.size() <= 2) return bp;
-        List<Point> out = new ArrayList<>();
-        for (int i = 0; i < in.size(); i++) {
-            if (i % 2 == 0) out.add(in.get(i));
+        int n = bp.pointCount();
+        if (n <= 2) return bp;
+        Blueprint.Builder out = Blueprint.builder(bp.getAuthor(), bp.getName(), (n + 1) / 2);
+        for (int i = 0; i < n; i += 2) {
+            out.add(bp.xAt(i), bp.yAt(i));
         }
-        return new Blueprint(bp.getAuthor(), bp.getName(), out);
+        return out.build();
+    }
+
+    // Blueprints of two points pass through untouched, so the second point is held back
+    // until a third one proves the input is longer than that.
+    @Override
+    public PointSink stage(PointSink downstream) {
+        return new PointSink() {
+            private int index;
+            private boolean holding;
+            private int hx, hy;
+
+            @Override
+            public void accept(int x, int y) {
+                int i = index++;
+                if (i == 1) {
+                    holding = true;
+                    hx = x;
+                    hy = y;
+                    return;
+                }
+                holding = false;
+                if (i % 2 == 0) downstream.accept(x, y);
+            }
+
+            @Override
+            public void end() {
+                if (holding) downstream.accept(hx, hy);
+                downstream.end();
+            }
+        };
     }
 }
@@ -0,0 +1,74 @@
+package edu.eci.arsw.blueprints.metrics;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/** Counts body bytes as they pass through, without buffering them. */
+class CountingResponseWrapper extends HttpServletResponseWrapper {
+
+    private ServletOutputStream out;
+    private PrintWriter writer;
+    private long bytes;
+
+    CountingResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    long bytesWritten() {
+        if (writer != null) writer.flush();
+        return bytes;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (out == null) {
+            ServletOutputStream target = super.getOutputStream();
+            out = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    target.write(b, off, len);
+                    bytes += len;
+                }
+
+                @Override
+                public void flush() throws IOException { target.flush(); }
+
+                @Override
+                public void close() throws IOException { target.close(); }
+
+                @Override
+                public boolean isReady() { return target.isReady(); }
+
+                @Override
+                public void setWriteListener(WriteListener listener) { target.setWriteListener(listener); }
+            };
+        }
+        return out;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) writer.flush();
+        super.flushBuffer();
+    }
+}
@@ -0,0 +1,84 @@
+package edu.eci.arsw.blueprints.metrics;
+
+import edu.eci.arsw.blueprints.metrics.RequestProfile.Layer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Outermost timing of every request: records the response body size per endpoint and, when a
+ * request takes longer than {@code blueprints.metrics.slow-request-threshold}, logs how its
+ * time split between controller, service, filter and persistence. Each layer is reported
+ * without the layers below it, so the four figures add up to the total.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final MeterRegistry meters;
+    private final long slowNanos;
+
+    public RequestMetricsFilter(MeterRegistry meters,
+                                @Value("${blueprints.metrics.slow-request-threshold:500ms}") Duration slowThreshold) {
+        this.meters = meters;
+        this.slowNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        long start = System.nanoTime();
+        RequestProfile.start();
+        long[] layers;
+        try {
+            chain.doFilter(request, counting);
+        } finally {
+            layers = RequestProfile.stop();
+        }
+        long total = System.nanoTime() - start;
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        // Streaming bodies are written after this returns, on an async dispatch.
+        if (!request.isAsyncStarted()) {
+            DistributionSummary.builder("blueprints.http.response.size")
+                    .baseUnit("bytes")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meters)
+                    .record(counting.bytesWritten());
+        }
+        if (total >= slowNanos) logSlow(request.getMethod(), uri, total, layers);
+    }
+
+    private static void logSlow(String method, String uri, long total, long[] layers) {
+        long service = layers[Layer.SERVICE.ordinal()];
+        long filter = layers[Layer.FILTER.ordinal()];
+        long persistence = layers[Layer.PERSISTENCE.ordinal()];
+        log.warn("Slow request {} {} took {} ms: controller={} ms service={} ms filter={} ms persistence={} ms",
+                method, uri, ms(total), ms(Math.max(0, total - service)),
+                ms(Math.max(0, service - filter - persistence)), ms(filter), ms(persistence));
+    }
+
+    private static String ms(long nanos) {
+        return String.format("%.1f", nanos / NANOS_PER_MILLI);
+    }
+}
@@ -0,0 +1,32 @@
+package edu.eci.arsw.blueprints.metrics;
+
+/**
+ * Per-thread accumulator of the time a request spends in each layer below the controller.
+ * {@link RequestMetricsFilter} opens and closes it around every request; the layers add to it
+ * with {@link #add}, which does nothing when no request is being profiled on the thread
+ * (background work, async dispatches, parallel filter workers).
+ */
+public final class RequestProfile {
+
+    public enum Layer { SERVICE, FILTER, PERSISTENCE }
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private RequestProfile() { }
+
+    static void start() {
+        CURRENT.set(new long[Layer.values().length]);
+    }
+
+    /** Inclusive nanoseconds per layer, indexed by {@link Layer#ordinal()}. */
+    static long[] stop() {
+        long[] nanos = CURRENT.get();
+        CURRENT.remove();
+        return nanos;
+    }
+
+    public static void add(Layer layer, long nanos) {
+        long[] current = CURRENT.get();
+        if (current != null) current[layer.ordinal()] += nanos;
+    }
+}
@@ -0,0 +1,54 @@
+package edu.eci.arsw.blueprints.metrics;
+
+import edu.eci.arsw.blueprints.metrics.RequestProfile.Layer;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps {@link BlueprintsServices} in a proxy that times every public call, per method, as
+ * {@code blueprints.service} and adds it to the request's service layer. Calls the service
+ * makes on itself don't go through the proxy, so they are not counted twice.
+ */
+@Component
+public class ServiceTimingPostProcessor implements BeanPostProcessor {
+
+    // Resolved lazily: asking for the registry while post-processors are being created would
+    // keep it, and everything it depends on, from being post-processed itself.
+    private final ObjectProvider<MeterRegistry> meters;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServiceTimingPostProcessor(ObjectProvider<MeterRegistry> meters) {
+        this.meters = meters;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof BlueprintsServices)) return bean;
+        ProxyFactory proxy = new ProxyFactory(bean);
+        proxy.setProxyTargetClass(true);
+        proxy.addAdvice((MethodInterceptor) invocation -> {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                long nanos = System.nanoTime() - start;
+                timers.computeIfAbsent(invocation.getMethod(), m -> Timer.builder("blueprints.service")
+                        .tag("method", m.getName())
+                        .register(meters.getObject())).record(nanos, TimeUnit.NANOSECONDS);
+                RequestProfile.add(Layer.SERVICE, nanos);
+            }
+        });
+        return proxy.getProxy();
+    }
+}
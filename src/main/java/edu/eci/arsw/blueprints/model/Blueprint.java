@@ -1,27 +1,200 @@
 package edu.eci.arsw.blueprints.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Blueprint with its points packed as {@code x,y} pairs in {@code int[]} segments.
+ * Hot paths (filters, persistence mappers) should iterate with {@link #pointCount()},
+ * {@link #xAt(int)} and {@link #yAt(int)}, which never allocate a {@link Point}.
+ *
+ * <p>Appends are safe from any number of threads and never wait on each other: a writer
+ * reserves a slot with {@code getAndIncrement}, fills it, marks it written and then
+ * CAS-advances the visible size over every consecutive written slot, publishing slower
+ * writers' points on their behalf. Readers only see fully written points.
+ *
+ * <p>Each appended point takes 9 bytes: 8 for its coordinates and 1 for its written flag.
+ * Segments double, so up to half of the allocated slots may still be empty.
+ *
+ * <p>Blueprints built by a single thread (filters, decoders, row mappers) go through a
+ * {@link Builder} instead: it fills a plain {@code int[]} and hands it over trimmed as the
+ * first segment, already published, so those points cost 8 bytes each, no flag and no CAS.
+ * Later appends to such a blueprint take the concurrent path as usual.
+ */
 public class Blueprint {
 
+    private static final int MIN_BASE = 8;
+    private static final VarHandle SIZE;
+    private static final VarHandle VERSION;
+    private static final VarHandle WRITTEN = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    static {
+        try {
+            SIZE = MethodHandles.lookup().findVarHandle(Blueprint.class, "size", int.class);
+            VERSION = MethodHandles.lookup().findVarHandle(Blueprint.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private String author;
     private String name;
-    private final List<Point> points = new ArrayList<>();
+
+    // Segment k holds base * 2^k points, so 32 fixed slots cover any int index
+    // and segments never move once allocated.
+    private final int base;
+    private final AtomicReferenceArray<Segment> segments = new AtomicReferenceArray<>(32);
+    private final AtomicInteger reserved = new AtomicInteger();
+    private volatile int size;
+    // Owned by the persistence layer, which bumps it after each write it applies; not serialized.
+    private volatile long version;
 
     public Blueprint(String author, String name, List<Point> pts) {
+        this(author, name, coordsOf(pts));
+    }
+
+    /** Empty blueprint with room for {@code expectedPoints} points in its first segment. */
+    public Blueprint(String author, String name, int expectedPoints) {
         this.author = author;
         this.name = name;
-        if (pts != null) points.addAll(pts);
+        this.base = Math.max(MIN_BASE, expectedPoints);
+    }
+
+    // Takes coords (x, y pairs, exactly full) as the first segment, published as is.
+    private Blueprint(String author, String name, int[] coords) {
+        this.author = author;
+        this.name = name;
+        int n = coords.length / 2;
+        if (n == 0) {
+            this.base = MIN_BASE;
+            return;
+        }
+        this.base = n;
+        segments.set(0, new Segment(coords));
+        reserved.set(n);
+        size = n;
+    }
+
+    private static int[] coordsOf(List<Point> pts) {
+        if (pts == null) return new int[0];
+        int[] coords = new int[pts.size() * 2];
+        int i = 0;
+        for (Point p : pts) {
+            coords[i++] = p.x();
+            coords[i++] = p.y();
+        }
+        return coords;
+    }
+
+    /** Single-threaded builder; see the class comment. */
+    public static Builder builder(String author, String name, int expectedPoints) {
+        return new Builder(author, name, expectedPoints);
     }
 
     public String getAuthor() { return author; }
     public String getName() { return name; }
-    public List<Point> getPoints() { return Collections.unmodifiableList(points); }
 
-    public void addPoint(Point p) { points.add(p); }
+    /** Read-only view over the points published when it was taken; elements are created on access. */
+    public List<Point> getPoints() { return new PointsView(this, size); }
+
+    public int pointCount() { return size; }
+
+    public long version() { return version; }
+
+    public void setVersion(long version) { this.version = version; }
+
+    /** Increments the version after a write has been published; returns the new value. */
+    public long bumpVersion() { return (long) VERSION.getAndAdd(this, 1L) + 1; }
+
+    public int xAt(int i) { return coord(Objects.checkIndex(i, size), 0); }
+
+    public int yAt(int i) { return coord(Objects.checkIndex(i, size), 1); }
+
+    public void addPoint(Point p) { addPoint(p.x(), p.y()); }
+
+    public void addPoint(int x, int y) {
+        int i = reserved.getAndIncrement();
+        int k = segmentOf(i);
+        int off = i - firstIndexOf(k);
+        Segment seg = segment(k);
+        seg.coords[off * 2] = x;
+        seg.coords[off * 2 + 1] = y;
+        WRITTEN.setVolatile(seg.written, off, (byte) 1);
+        publish();
+    }
+
+    /**
+     * Appends {@code xy.length / 2} points given as consecutive x, y pairs. Readers see all of
+     * them or none: the slots are reserved together and their written flags are set last to
+     * first, so the visible size cannot enter the batch before its first point is marked, and
+     * by then every other point of it is.
+     */
+    public void addPoints(int[] xy) {
+        if (xy.length % 2 != 0) throw new IllegalArgumentException("Odd number of coordinates: " + xy.length);
+        int n = xy.length / 2;
+        if (n == 0) return;
+        int first = reserved.getAndAdd(n);
+        for (int j = 0; j < n; j++) {
+            int i = first + j;
+            int k = segmentOf(i);
+            int off = i - firstIndexOf(k);
+            Segment seg = segment(k);
+            seg.coords[off * 2] = xy[j * 2];
+            seg.coords[off * 2 + 1] = xy[j * 2 + 1];
+        }
+        for (int j = n - 1; j >= 0; j--) {
+            int i = first + j;
+            int k = segmentOf(i);
+            WRITTEN.setVolatile(segments.get(k).written, i - firstIndexOf(k), (byte) 1);
+        }
+        publish();
+    }
+
+    // Whoever sets the last flag of a gap sees every flag set before it, so
+    // stopping at an unwritten slot never strands a written point.
+    private void publish() {
+        for (;;) {
+            int from = size;
+            int to = from;
+            while (isWritten(to)) to++;
+            if (to == from || SIZE.compareAndSet(this, from, to)) return;
+        }
+    }
+
+    private boolean isWritten(int i) {
+        int k = segmentOf(i);
+        Segment seg = segments.get(k);
+        return seg != null && (byte) WRITTEN.getVolatile(seg.written, i - firstIndexOf(k)) != 0;
+    }
+
+    private int coord(int i, int axis) {
+        int k = segmentOf(i);
+        return segments.get(k).coords[(i - firstIndexOf(k)) * 2 + axis];
+    }
+
+    private Segment segment(int k) {
+        Segment seg = segments.get(k);
+        if (seg == null) {
+            segments.compareAndSet(k, null, new Segment(base << k));
+            seg = segments.get(k);
+        }
+        return seg;
+    }
+
+    private int segmentOf(int i) {
+        return 31 - Integer.numberOfLeadingZeros(i / base + 1);
+    }
+
+    private int firstIndexOf(int k) {
+        return base * ((1 << k) - 1);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -34,4 +207,74 @@ public class Blueprint {
     public int hashCode() {
         return Objects.hash(author, name);
     }
+
+    private static final class Segment {
+        final int[] coords;
+        // Null for a builder's segment: it is full and published before any append.
+        final byte[] written;
+
+        Segment(int points) {
+            coords = new int[points * 2];
+            written = new byte[points];
+        }
+
+        Segment(int[] coords) {
+            this.coords = coords;
+            this.written = null;
+        }
+    }
+
+    /**
+     * Collects points into a growable {@code int[]} and turns it into a {@link Blueprint}
+     * once. Not thread-safe, and not usable after {@link #build()}.
+     */
+    public static final class Builder {
+        private final String author;
+        private final String name;
+        private int[] coords;
+        private int size;
+
+        private Builder(String author, String name, int expectedPoints) {
+            this.author = author;
+            this.name = name;
+            this.coords = new int[Math.max(MIN_BASE, expectedPoints) * 2];
+        }
+
+        public Builder add(int x, int y) {
+            if (size * 2 == coords.length) coords = Arrays.copyOf(coords, coords.length * 2);
+            coords[size * 2] = x;
+            coords[size * 2 + 1] = y;
+            size++;
+            return this;
+        }
+
+        public int pointCount() { return size; }
+
+        public Blueprint build() {
+            int[] exact = coords.length == size * 2 ? coords : Arrays.copyOf(coords, size * 2);
+            coords = null;
+            return new Blueprint(author, name, exact);
+        }
+    }
+
+    // Published points are never rewritten, so a view bounded by the size
+    // read at creation is a consistent snapshot without copying.
+    private static final class PointsView extends AbstractList<Point> implements RandomAccess {
+        private final Blueprint bp;
+        private final int size;
+
+        PointsView(Blueprint bp, int size) {
+            this.bp = bp;
+            this.size = size;
+        }
+
+        @Override
+        public Point get(int index) {
+            int i = Objects.checkIndex(index, size);
+            return new Point(bp.coord(i, 0), bp.coord(i, 1));
+        }
+
+        @Override
+        public int size() { return size; }
+    }
 }
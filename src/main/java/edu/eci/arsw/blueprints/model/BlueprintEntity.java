@@ -1,14 +1,19 @@
 package edu.eci.arsw.blueprints.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Entity
 @Table(name = "blueprint", uniqueConstraints = @UniqueConstraint(columnNames = {"author", "name"}))
 public class BlueprintEntity {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blueprint_seq")
+    @SequenceGenerator(name = "blueprint_seq", sequenceName = "blueprint_seq", allocationSize = 50)
     private Integer id;
 
     @Column(nullable = false)
@@ -17,9 +22,45 @@ public class BlueprintEntity {
     @Column(nullable = false)
     private String name;
 
-    @OneToMany(mappedBy = "blueprint", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+    // Bumped with a bulk update on every point append; the default lets ddl-auto add the
+    // column to tables that already have rows.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // Running summary, kept current by every append (see SummaryAccumulator); the coordinates
+    // are null while the blueprint has no points.
+    @Column(name = "point_count", nullable = false)
+    @ColumnDefault("0")
+    private int pointCount;
+    @Column(name = "min_x") private Integer minX;
+    @Column(name = "min_y") private Integer minY;
+    @Column(name = "max_x") private Integer maxX;
+    @Column(name = "max_y") private Integer maxY;
+    @Column(name = "first_x") private Integer firstX;
+    @Column(name = "first_y") private Integer firstY;
+    @Column(name = "last_x") private Integer lastX;
+    @Column(name = "last_y") private Integer lastY;
+    @Column(name = "path_length", nullable = false)
+    @ColumnDefault("0")
+    private double pathLength;
+
+    // Profile "packed": every point as a big-endian (x, y) int pair, and no point rows. The
+    // length is H2's varbinary limit; Postgres maps it to bytea, which has none.
+    @Column(name = "packed_points", length = 1_000_000_000)
+    private byte[] packedPoints;
+
+    @OneToMany(mappedBy = "blueprint", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("ordinal ASC")
     private List<PointEntity> points = new ArrayList<>();
 
+    // Spatial grid cells holding at least one point; see SpatialGrid.
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "blueprint_cell", joinColumns = @JoinColumn(name = "blueprint_id"),
+            indexes = @Index(name = "blueprint_cell_cell", columnList = "cell"))
+    @Column(name = "cell", nullable = false)
+    private Set<Long> cells = new HashSet<>();
+
     public BlueprintEntity() {}
     public BlueprintEntity(String author, String name) {
         this.author = author;
@@ -28,8 +69,28 @@ public class BlueprintEntity {
     public Integer getId() { return id; }
     public String getAuthor() { return author; }
     public String getName() { return name; }
+    public long getVersion() { return version; }
     public List<PointEntity> getPoints() { return points; }
     public void setPoints(List<PointEntity> points) { this.points = points; }
+    public int getPointCount() { return pointCount; }
+    public double getPathLength() { return pathLength; }
+    public void setSummary(int pointCount, int minX, int minY, int maxX, int maxY,
+                           int firstX, int firstY, int lastX, int lastY, double length) {
+        this.pointCount = pointCount;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.firstX = firstX;
+        this.firstY = firstY;
+        this.lastX = lastX;
+        this.lastY = lastY;
+        this.pathLength = length;
+    }
+    public Set<Long> getCells() { return cells; }
+    public void setCells(Set<Long> cells) { this.cells = cells; }
+    public byte[] getPackedPoints() { return packedPoints; }
+    public void setPackedPoints(byte[] packedPoints) { this.packedPoints = packedPoints; }
     public void setAuthor(String author) { this.author = author; }
     public void setName(String name) { this.name = name; }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package edu.eci.arsw.blueprints.model;
+
+/**
+ * Aggregates of a blueprint that callers can use instead of its points.
+ *
+ * @param bounds    smallest box holding every point; {@code null} for a blueprint without points
+ * @param length    length of the open polyline through the points, in order
+ * @param perimeter {@code length} plus the segment closing the last point back to the first
+ */
+public record BlueprintSummary(String author, String name, int pointCount, BoundingBox bounds,
+                               double length, double perimeter) { }
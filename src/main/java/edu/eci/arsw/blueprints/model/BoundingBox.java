@@ -0,0 +1,35 @@
+package edu.eci.arsw.blueprints.model;
+
+/** Closed axis-aligned rectangle: both bounds are inside. */
+public record BoundingBox(int minX, int minY, int maxX, int maxY) {
+
+    public BoundingBox {
+        if (minX > maxX || minY > maxY) throw new IllegalArgumentException("min must not exceed max");
+    }
+
+    public boolean contains(int x, int y) {
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    /** True if at least one point of {@code bp} lies inside this box. */
+    public boolean containsAnyPoint(Blueprint bp) {
+        int n = bp.pointCount();
+        for (int i = 0; i < n; i++) {
+            if (contains(bp.xAt(i), bp.yAt(i))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses {@code minX,minY,maxX,maxY}.
+     *
+     * @throws IllegalArgumentException if the text is not four integers or min exceeds max
+     */
+    public static BoundingBox parse(String text) {
+        String[] parts = text.split(",");
+        if (parts.length != 4) throw new IllegalArgumentException("bbox must be minX,minY,maxX,maxY");
+        int[] v = new int[4];
+        for (int i = 0; i < 4; i++) v[i] = Integer.parseInt(parts[i].trim());
+        return new BoundingBox(v[0], v[1], v[2], v[3]);
+    }
+}
@@ -0,0 +1,22 @@
+package edu.eci.arsw.blueprints.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One stripe of the catalog version counter. Every write bumps one stripe in its own
+ * transaction and the catalog version is their sum, so reading it costs the same for any
+ * catalog size, while concurrent writers rarely wait on the same row lock.
+ */
+@Entity
+@Table(name = "catalog_version")
+public class CatalogVersionEntity {
+    @Id
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private long version;
+
+    public CatalogVersionEntity() {}
+    public Integer getStripe() { return stripe; }
+    public long getVersion() { return version; }
+}
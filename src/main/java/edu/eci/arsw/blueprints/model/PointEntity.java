@@ -3,29 +3,39 @@ package edu.eci.arsw.blueprints.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "point")
+@Table(name = "point", indexes = @Index(name = "point_blueprint_ordinal",
+        columnList = "blueprint_id, ordinal", unique = true))
 public class PointEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "point_seq")
+    @SequenceGenerator(name = "point_seq", sequenceName = "point_seq", allocationSize = 1000)
     private Integer id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "blueprint_id", nullable = false)
     private BlueprintEntity blueprint;
 
+    // Position of the point in its blueprint, 0-based. Ids come from a pooled sequence, so
+    // instances holding different id blocks can hand a later append a lower id; order is
+    // always by ordinal.
+    @Column(nullable = false)
+    private int ordinal;
+
     @Column(nullable = false)
     private int x;
     @Column(nullable = false)
     private int y;
 
     public PointEntity() {}
-    public PointEntity(BlueprintEntity blueprint, int x, int y) {
+    public PointEntity(BlueprintEntity blueprint, int ordinal, int x, int y) {
         this.blueprint = blueprint;
+        this.ordinal = ordinal;
         this.x = x;
         this.y = y;
     }
     public Integer getId() { return id; }
     public BlueprintEntity getBlueprint() { return blueprint; }
+    public int getOrdinal() { return ordinal; }
     public int getX() { return x; }
     public int getY() { return y; }
     public void setBlueprint(BlueprintEntity blueprint) { this.blueprint = blueprint; }
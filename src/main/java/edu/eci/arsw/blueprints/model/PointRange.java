@@ -0,0 +1,27 @@
+package edu.eci.arsw.blueprints.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Points {@code since} (0-based) onwards of one blueprint, in order, with the blueprint's
+ * version and point count as of the read. Points are only ever appended, so the next range
+ * starts at {@code since + points.size()}; the client is in sync once that reaches
+ * {@code pointCount}.
+ */
+public record PointRange(String author, String name, long version, int pointCount, int since, List<Point> points) {
+
+    /**
+     * At most {@code limit} points of {@code bp} from {@code since}. The version is read before
+     * the points, so a blueprint appended to concurrently can only show newer points than its
+     * version says, never older.
+     */
+    public static PointRange of(Blueprint bp, int since, int limit) {
+        long version = bp.version();
+        int count = bp.pointCount();
+        int to = (int) Math.min((long) since + limit, count);
+        List<Point> points = new ArrayList<>(Math.max(0, to - since));
+        for (int i = since; i < to; i++) points.add(new Point(bp.xAt(i), bp.yAt(i)));
+        return new PointRange(bp.getAuthor(), bp.getName(), version, count, since, points);
+    }
+}
@@ -1,14 +1,160 @@
 package edu.eci.arsw.blueprints.persistence;
 
 import edu.eci.arsw.blueprints.model.BlueprintEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface BlueprintEntityRepository extends JpaRepository<BlueprintEntity, Integer> {
     Optional<BlueprintEntity> findByAuthorAndName(String author, String name);
     List<BlueprintEntity> findByAuthor(String author);
-}
\ No newline at end of file
+
+    /** Id-only lookup: does not load the blueprint row into the session nor touch its points. */
+    @Query("select b.id from BlueprintEntity b where b.author = :author and b.name = :name")
+    Optional<Integer> findIdByAuthorAndName(@Param("author") String author, @Param("name") String name);
+
+    @Query("select b.version from BlueprintEntity b where b.author = :author and b.name = :name")
+    Optional<Long> findVersionByAuthorAndName(@Param("author") String author, @Param("name") String name);
+
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintVersionRow(b.id, b.version, b.pointCount)
+            from BlueprintEntity b where b.author = :author and b.name = :name""")
+    Optional<BlueprintVersionRow> findVersionRow(@Param("author") String author, @Param("name") String name);
+
+    // count + sum of versions: saving a blueprint raises the count, appending a point raises a
+    // version, so the aggregate grows with every write. It scans only the author's rows, which
+    // the author listing it tags reads anyway; the catalog version is a stored counter instead.
+    @Query("select count(b) + coalesce(sum(b.version), 0) from BlueprintEntity b where b.author = :author")
+    long aggregateVersionByAuthor(@Param("author") String author);
+
+    /**
+     * SET clause of every append: bumps the version once and merges a batch of :count points,
+     * summarized by its bounds, first and last points and internal :length, into the summary
+     * columns. Right-hand sides see the row as it was before the update, so the segment joining
+     * the stored polyline to the batch starts at the previous last point. Distances are computed
+     * in double precision because coordinate differences can overflow int.
+     */
+    String APPEND_SET = """
+            version = version + 1,
+            point_count = point_count + :count,
+            path_length = path_length + :length + case when point_count = 0 then 0
+                else sqrt(power(cast(:firstX as double precision) - last_x, 2)
+                        + power(cast(:firstY as double precision) - last_y, 2)) end,
+            min_x = least(coalesce(min_x, :minX), :minX),
+            min_y = least(coalesce(min_y, :minY), :minY),
+            max_x = greatest(coalesce(max_x, :maxX), :maxX),
+            max_y = greatest(coalesce(max_y, :maxY), :maxY),
+            first_x = coalesce(first_x, :firstX),
+            first_y = coalesce(first_y, :firstY),
+            last_x = :lastX,
+            last_y = :lastY""";
+
+    @Modifying
+    @Query(value = "update blueprint set " + APPEND_SET + " where id = :id", nativeQuery = true)
+    int recordAppends(@Param("id") Integer id, @Param("count") int count,
+                      @Param("minX") int minX, @Param("minY") int minY, @Param("maxX") int maxX, @Param("maxY") int maxY,
+                      @Param("firstX") int firstX, @Param("firstY") int firstY,
+                      @Param("lastX") int lastX, @Param("lastY") int lastY, @Param("length") double length);
+
+    /** Read after {@link #recordAppends} in the same transaction, under its row lock. */
+    @Query("select b.pointCount from BlueprintEntity b where b.id = :id")
+    int findPointCountById(@Param("id") Integer id);
+
+    @Modifying
+    @Query(value = "update blueprint set packed_points = coalesce(packed_points, :empty) || :points, " + APPEND_SET
+            + " where author = :author and name = :name", nativeQuery = true)
+    int appendPacked(@Param("author") String author, @Param("name") String name, @Param("points") byte[] points,
+                     @Param("empty") byte[] empty, @Param("count") int count,
+                     @Param("minX") int minX, @Param("minY") int minY, @Param("maxX") int maxX, @Param("maxY") int maxY,
+                     @Param("firstX") int firstX, @Param("firstY") int firstY,
+                     @Param("lastX") int lastX, @Param("lastY") int lastY, @Param("length") double length);
+
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintSummaryRow(b.author, b.name, b.pointCount,
+                b.minX, b.minY, b.maxX, b.maxY, b.firstX, b.firstY, b.lastX, b.lastY, b.pathLength)
+            from BlueprintEntity b where b.author = :author and b.name = :name""")
+    Optional<BlueprintSummaryRow> findSummary(@Param("author") String author, @Param("name") String name);
+
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintSummaryRow(b.author, b.name, b.pointCount,
+                b.minX, b.minY, b.maxX, b.maxY, b.firstX, b.firstY, b.lastX, b.lastY, b.pathLength)
+            from BlueprintEntity b where b.author = :author order by b.name""")
+    List<BlueprintSummaryRow> findSummariesByAuthor(@Param("author") String author);
+
+    @Query("select distinct b.id from BlueprintEntity b join b.cells c where c in :cells")
+    List<Integer> findIdsInCells(@Param("cells") Collection<Long> cells);
+
+    // Callers update the blueprint row first: its row lock orders concurrent appends, so the
+    // second one sees the cell the first inserted.
+    @Modifying
+    @Query(value = """
+            insert into blueprint_cell (blueprint_id, cell)
+            select b.id, :cell from blueprint b
+            where b.author = :author and b.name = :name
+              and not exists (select 1 from blueprint_cell c where c.blueprint_id = b.id and c.cell = :cell)""",
+            nativeQuery = true)
+    int addCell(@Param("author") String author, @Param("name") String name, @Param("cell") long cell);
+
+    @Query("select b.author, b.name from BlueprintEntity b where b.author in :authors")
+    List<Object[]> findKeysByAuthorIn(@Param("authors") Collection<String> authors);
+
+    // Keyset pagination over the (author, name) unique index.
+    @Query("select b.id from BlueprintEntity b order by b.author, b.name")
+    List<Integer> findFirstPageIds(Pageable pageable);
+
+    @Query("""
+            select b.id from BlueprintEntity b
+            where b.author > :author or (b.author = :author and b.name > :name)
+            order by b.author, b.name""")
+    List<Integer> findPageIdsAfter(@Param("author") String author, @Param("name") String name, Pageable pageable);
+
+    // Flat projections: blueprints and their points in one statement, ordered so that
+    // each blueprint's rows are contiguous and in point order.
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintPointRow(b.id, b.author, b.name, b.version, p.x, p.y)
+            from BlueprintEntity b left join b.points p
+            where b.author = :author and b.name = :name
+            order by p.ordinal""")
+    List<BlueprintPointRow> findRowsByAuthorAndName(@Param("author") String author, @Param("name") String name);
+
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintPointRow(b.id, b.author, b.name, b.version, p.x, p.y)
+            from BlueprintEntity b left join b.points p
+            where b.author = :author
+            order by b.name, p.ordinal""")
+    List<BlueprintPointRow> findRowsByAuthor(@Param("author") String author);
+
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintPointRow(b.id, b.author, b.name, b.version, p.x, p.y)
+            from BlueprintEntity b left join b.points p
+            where b.id in :ids
+            order by b.author, b.name, p.ordinal""")
+    List<BlueprintPointRow> findRowsByIds(@Param("ids") List<Integer> ids);
+
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintPointRow(b.id, b.author, b.name, b.version, p.x, p.y)
+            from BlueprintEntity b left join b.points p
+            order by b.author, b.name, p.ordinal""")
+    List<BlueprintPointRow> findAllRows();
+
+    /** Server-side cursor over the whole catalog; must be consumed inside a transaction and closed. */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1024"))
+    @Query("""
+            select new edu.eci.arsw.blueprints.persistence.BlueprintPointRow(b.id, b.author, b.name, b.version, p.x, p.y)
+            from BlueprintEntity b left join b.points p
+            order by b.author, b.name, p.ordinal""")
+    Stream<BlueprintPointRow> streamAllRows();
+}
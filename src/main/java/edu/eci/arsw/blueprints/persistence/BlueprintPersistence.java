@@ -1,17 +1,79 @@
 package edu.eci.arsw.blueprints.persistence;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.PointRange;
+
+import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BlueprintPersistence {
 
     void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException;
 
+    /**
+     * Saves every blueprint that does not exist yet. The result is index-aligned with
+     * {@code bps}: {@code true} if that blueprint was created, {@code false} if it was a duplicate
+     * (including a repeated key earlier in the same list).
+     */
+    List<Boolean> saveBlueprints(List<Blueprint> bps);
+
     Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException;
 
     Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException;
 
     Set<Blueprint> getAllBlueprints();
 
+    /**
+     * Up to {@code limit} blueprints ordered by (author, name), starting right after
+     * {@code afterAuthor}/{@code afterName}; a null {@code afterAuthor} starts from the first one.
+     */
+    List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit);
+
+    /** Hands every blueprint, ordered by (author, name), to {@code action} as it is read. */
+    void forEachBlueprint(Consumer<Blueprint> action);
+
+    /** Blueprints with at least one point inside {@code box} (bounds included). */
+    Set<Blueprint> getBlueprintsInBox(BoundingBox box);
+
     void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException;
+
+    /**
+     * Appends {@code xy.length / 2} points, given as consecutive x, y pairs, as a single write:
+     * one version bump, and readers see all of them or none. An empty array only checks that
+     * the blueprint exists.
+     */
+    void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException;
+
+    /**
+     * Up to {@code limit} points of one blueprint starting at ordinal {@code since} (0-based),
+     * reading only those points; empty once {@code since} reaches the point count.
+     */
+    PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException;
+
+    /**
+     * Point count, bounds and lengths of one blueprint, kept current on every write, so this
+     * never reads the points.
+     */
+    BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException;
+
+    /** Summaries of an author's blueprints, ordered by name. */
+    List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException;
+
+    /**
+     * Current version of one blueprint, without reading its points. Every write to the blueprint
+     * increases it; it is bumped only after the write is visible to readers.
+     */
+    long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException;
+
+    /**
+     * Aggregate version of an author's blueprints: increases whenever one of them is written or a
+     * new one is saved. {@code 0} if the author has no blueprints.
+     */
+    long getAuthorVersion(String author);
+
+    /** Aggregate version of the whole catalog: increases on every write. */
+    long getCatalogVersion();
 }
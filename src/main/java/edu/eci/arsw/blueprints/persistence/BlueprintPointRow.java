@@ -0,0 +1,7 @@
+package edu.eci.arsw.blueprints.persistence;
+
+/**
+ * One row of the flat blueprint/point projection. {@code x}/{@code y} are null for a
+ * blueprint without points (left join).
+ */
+public record BlueprintPointRow(Integer blueprintId, String author, String name, Long version, Integer x, Integer y) { }
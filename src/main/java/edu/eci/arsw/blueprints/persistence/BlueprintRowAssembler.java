@@ -0,0 +1,54 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Folds {@link BlueprintPointRow}s, grouped by blueprint and in point order, straight into
+ * {@link Blueprint}s. Each blueprint is handed downstream as soon as its last row is seen.
+ */
+class BlueprintRowAssembler implements Consumer<BlueprintPointRow> {
+
+    private final Consumer<Blueprint> downstream;
+    private Integer currentId;
+    private long currentVersion;
+    private Blueprint.Builder current;
+
+    BlueprintRowAssembler(Consumer<Blueprint> downstream) {
+        this.downstream = downstream;
+    }
+
+    static List<Blueprint> assemble(List<BlueprintPointRow> rows) {
+        List<Blueprint> out = new ArrayList<>();
+        BlueprintRowAssembler assembler = new BlueprintRowAssembler(out::add);
+        rows.forEach(assembler);
+        assembler.finish();
+        return out;
+    }
+
+    @Override
+    public void accept(BlueprintPointRow row) {
+        if (!Objects.equals(row.blueprintId(), currentId)) {
+            finish();
+            currentId = row.blueprintId();
+            currentVersion = row.version();
+            current = Blueprint.builder(row.author(), row.name(), 0);
+        }
+        if (row.x() != null) current.add(row.x(), row.y());
+    }
+
+    /** Emits the blueprint still being assembled, if any. */
+    void finish() {
+        if (current != null) {
+            Blueprint bp = current.build();
+            bp.setVersion(currentVersion);
+            downstream.accept(bp);
+        }
+        current = null;
+        currentId = null;
+    }
+}
@@ -0,0 +1,16 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+
+/** Summary columns of one blueprint row; the coordinates are null while it has no points. */
+public record BlueprintSummaryRow(String author, String name, Integer pointCount,
+                                  Integer minX, Integer minY, Integer maxX, Integer maxY,
+                                  Integer firstX, Integer firstY, Integer lastX, Integer lastY, Double length) {
+
+    BlueprintSummary toSummary() {
+        if (pointCount == 0) return new BlueprintSummary(author, name, 0, null, 0, 0);
+        return new BlueprintSummary(author, name, pointCount, new BoundingBox(minX, minY, maxX, maxY), length,
+                length + SummaryAccumulator.distance(lastX, lastY, firstX, firstY));
+    }
+}
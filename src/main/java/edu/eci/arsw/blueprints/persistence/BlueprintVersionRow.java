@@ -0,0 +1,4 @@
+package edu.eci.arsw.blueprints.persistence;
+
+/** Id, version and point count of one blueprint row, read together without its points. */
+public record BlueprintVersionRow(Integer id, Long version, Integer pointCount) { }
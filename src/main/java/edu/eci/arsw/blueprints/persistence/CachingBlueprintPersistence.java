@@ -0,0 +1,73 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.cache.WeightedLruCache;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.PointRange;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read-through cache for single-blueprint lookups, bounded by the total number of cached
+ * points and by a TTL. Writes go straight to the delegate and then invalidate the key.
+ * Profile: "cache"
+ */
+public class CachingBlueprintPersistence extends ForwardingBlueprintPersistence {
+
+    private record Key(String author, String name) { }
+
+    private final WeightedLruCache<Key, Blueprint> cache;
+
+    public CachingBlueprintPersistence(BlueprintPersistence delegate, long maxPoints, Duration ttl) {
+        super(delegate);
+        this.cache = new WeightedLruCache<>(maxPoints, ttl, Blueprint::pointCount);
+    }
+
+    public WeightedLruCache.Stats stats() { return cache.stats(); }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        Key key = new Key(author, name);
+        Blueprint bp = cache.get(key);
+        if (bp != null) return bp;
+        long generation = cache.generation();
+        bp = delegate.getBlueprint(author, name);
+        cache.put(key, bp, generation);
+        return bp;
+    }
+
+    // A cached blueprint is sliced; a miss reads just the range and caches nothing.
+    @Override
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        Blueprint bp = cache.get(new Key(author, name));
+        if (bp != null) return PointRange.of(bp, since, limit);
+        return delegate.getPoints(author, name, since, limit);
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        delegate.saveBlueprint(bp);
+        cache.invalidate(new Key(bp.getAuthor(), bp.getName()));
+    }
+
+    @Override
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        List<Boolean> created = delegate.saveBlueprints(bps);
+        for (int i = 0; i < bps.size(); i++) {
+            if (created.get(i)) cache.invalidate(new Key(bps.get(i).getAuthor(), bps.get(i).getName()));
+        }
+        return created;
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        delegate.addPoint(author, name, x, y);
+        cache.invalidate(new Key(author, name));
+    }
+
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        delegate.addPoints(author, name, xy);
+        cache.invalidate(new Key(author, name));
+    }
+}
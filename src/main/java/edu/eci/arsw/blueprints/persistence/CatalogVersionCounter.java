@@ -0,0 +1,46 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * Stored catalog version for the Postgres layouts: a counter striped over
+ * {@value #STRIPES} rows of {@code catalog_version}. Writers bump the stripe of the blueprint
+ * they touch as the last statement of their transaction, so the row lock is held only until
+ * commit and the new value becomes visible together with the write.
+ */
+@Component
+@Profile("!durable")
+class CatalogVersionCounter {
+
+    static final int STRIPES = 16;
+
+    private final CatalogVersionRepository repo;
+
+    CatalogVersionCounter(CatalogVersionRepository repo) {
+        this.repo = repo;
+    }
+
+    @PostConstruct
+    void createStripes() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            try {
+                repo.insertIfAbsent(stripe);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance created it first.
+            }
+        }
+    }
+
+    void bump(String author, String name) {
+        repo.increment(Math.floorMod(Objects.hash(author, name), STRIPES));
+    }
+
+    long current() {
+        return repo.total();
+    }
+}
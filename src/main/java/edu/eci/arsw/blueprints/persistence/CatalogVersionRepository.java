@@ -0,0 +1,29 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.CatalogVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersionEntity, Integer> {
+
+    @Query("select coalesce(sum(c.version), 0) from CatalogVersionEntity c")
+    long total();
+
+    /** Must run inside the write's transaction, so the bump commits with it. */
+    @Modifying
+    @Query(value = "update catalog_version set version = version + 1 where stripe = :stripe", nativeQuery = true)
+    int increment(@Param("stripe") int stripe);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into catalog_version (stripe, version)
+            select :stripe, 0 where not exists (select 1 from catalog_version where stripe = :stripe)""",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("stripe") int stripe);
+}
@@ -0,0 +1,386 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.codec.BlueprintCodec;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Makes the in-memory store survive restarts. Every write is applied in memory and recorded in
+ * a {@link WriteAheadLog} under a lock striped by blueprint, so a blueprint's records are in
+ * the order its writes were applied; the caller returns once its record is durable, sharing
+ * the fsync with concurrent writers. Reads go straight to memory and may see a write a moment
+ * before it is acknowledged.
+ *
+ * <p>A background thread takes a snapshot once the current log segment passes
+ * {@code snapshotLogBytes}: it starts a new segment, writes every blueprint in
+ * {@link BlueprintCodec} frames while writes continue, and then deletes the older snapshot and
+ * segments. Startup loads the latest snapshot and replays the segments written since. Append
+ * records carry the ordinal of their first point and the resulting version, so replaying a
+ * record the snapshot already caught is a no-op and versions (hence ETags) come back as they
+ * were. A torn record at the end of the last segment is discarded.
+ * Profile: "durable"
+ */
+public class DurableBlueprintPersistence extends ForwardingBlueprintPersistence implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DurableBlueprintPersistence.class);
+    private static final int STRIPES = 64;
+    private static final byte SAVE = 1;
+    private static final byte APPEND = 2;
+    private static final int SNAPSHOT_MAGIC = 0x42505331; // "BPS1"
+
+    private final InMemoryBlueprintPersistence memory;
+    private final Path dir;
+    private final long snapshotLogBytes;
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService snapshotter;
+
+    /**
+     * Recovers {@code memory} from {@code dir} before returning.
+     *
+     * @param fsync            force every group commit to disk; without it a write survives a
+     *                         process crash but not an operating system crash
+     * @param snapshotLogBytes log segment size that triggers a snapshot
+     * @param snapshotCheck    how often the segment size is checked
+     */
+    public DurableBlueprintPersistence(InMemoryBlueprintPersistence memory, Path dir, boolean fsync,
+                                       long snapshotLogBytes, Duration snapshotCheck) throws IOException {
+        super(memory);
+        this.memory = memory;
+        this.dir = dir;
+        this.snapshotLogBytes = snapshotLogBytes;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+        Files.createDirectories(dir);
+        this.wal = new WriteAheadLog(dir, recover(), fsync);
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "blueprints-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long nanos = snapshotCheck.toNanos();
+        snapshotter.scheduleWithFixedDelay(this::snapshotIfLogIsLarge, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        ReentrantLock stripe = stripe(bp.getAuthor(), bp.getName());
+        long position;
+        stripe.lock();
+        try {
+            checkLog();
+            memory.saveBlueprint(bp);
+            position = wal.append(record(SAVE, bp.version(), 0, bp));
+        } finally {
+            stripe.unlock();
+        }
+        sync(position);
+    }
+
+    @Override
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        TreeSet<Integer> held = new TreeSet<>();
+        for (Blueprint bp : bps) held.add(stripeOf(bp.getAuthor(), bp.getName()));
+        long position = 0;
+        List<Boolean> created;
+        for (int s : held) stripes[s].lock();
+        try {
+            checkLog();
+            created = memory.saveBlueprints(bps);
+            for (int i = 0; i < bps.size(); i++) {
+                if (created.get(i)) position = wal.append(record(SAVE, bps.get(i).version(), 0, bps.get(i)));
+            }
+        } finally {
+            for (int s : held.descendingSet()) stripes[s].unlock();
+        }
+        if (position > 0) sync(position);
+        return created;
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        addPoints(author, name, new int[] {x, y});
+    }
+
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        ReentrantLock stripe = stripe(author, name);
+        long position;
+        stripe.lock();
+        try {
+            checkLog();
+            Blueprint bp = memory.getBlueprint(author, name);
+            // Nothing else appends to bp while the stripe is held, so its count is exact.
+            int start = bp.pointCount();
+            memory.addPoints(author, name, xy);
+            if (xy.length == 0) return;
+            Blueprint.Builder batch = Blueprint.builder(author, name, xy.length / 2);
+            for (int i = 0; i < xy.length; i += 2) batch.add(xy[i], xy[i + 1]);
+            position = wal.append(record(APPEND, bp.version(), start, batch.build()));
+        } finally {
+            stripe.unlock();
+        }
+        sync(position);
+    }
+
+    /**
+     * Writes a snapshot of the current state and drops the log segments and snapshot it
+     * replaces. Writes are not paused; only one snapshot runs at a time.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long start = System.nanoTime();
+            // Every record before the cut is already applied in memory, so the snapshot holds it.
+            long segment = wal.rotate();
+            Path tmp = dir.resolve("snapshot-" + segment + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                CheckedOutputStream checked = new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+                DataOutputStream out = new DataOutputStream(checked);
+                out.writeInt(SNAPSHOT_MAGIC);
+                memory.forEachBlueprint(bp -> {
+                    try {
+                        // Version first: the points read after it can only be newer.
+                        long version = bp.version();
+                        byte[] frame = BlueprintCodec.encode(bp);
+                        out.writeByte(1);
+                        out.writeLong(version);
+                        out.writeInt(frame.length);
+                        out.write(frame);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                out.writeByte(0);
+                out.writeLong(checked.getChecksum().getValue());
+                out.flush();
+                channel.force(true);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(tmp, snapshotPath(segment), StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory();
+            for (long old : numbered("snapshot-", ".bin")) if (old < segment) Files.deleteIfExists(snapshotPath(old));
+            for (long old : numbered("wal-", ".log")) if (old < segment) Files.deleteIfExists(WriteAheadLog.segmentPath(dir, old));
+            log.info("Snapshot {} written in {} ms", segment, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /** Stops the snapshot thread and writes out the log; later writes fail. */
+    @Override
+    public void close() throws IOException {
+        snapshotter.shutdown();
+        try {
+            if (!snapshotter.awaitTermination(60, TimeUnit.SECONDS)) log.warn("Snapshot thread did not stop in 60s");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        wal.close();
+    }
+
+    private void snapshotIfLogIsLarge() {
+        if (wal.segmentBytes() < snapshotLogBytes) return;
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.warn("Snapshot failed; the log keeps growing until the next attempt", e);
+        }
+    }
+
+    // Returns the segment the log continues with.
+    private long recover() throws IOException {
+        long start = System.nanoTime();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path tmp : files.filter(f -> f.getFileName().toString().endsWith(".tmp")).toList()) Files.delete(tmp);
+        }
+        List<Long> snapshots = numbered("snapshot-", ".bin");
+        long base = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+        if (!snapshots.isEmpty()) loadSnapshot(snapshotPath(base));
+        List<Long> segments = new ArrayList<>();
+        for (long n : numbered("wal-", ".log")) {
+            if (n >= base) segments.add(n);
+            else Files.delete(WriteAheadLog.segmentPath(dir, n));
+        }
+        long records = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = WriteAheadLog.segmentPath(dir, segments.get(i));
+            long[] count = {0};
+            long intact = WriteAheadLog.replay(file, record -> {
+                replay(record);
+                count[0]++;
+            });
+            records += count[0];
+            long size = Files.size(file);
+            if (intact < size) {
+                if (i < segments.size() - 1) throw new IOException("Corrupt record in " + file + " at byte " + intact);
+                log.warn("Discarding {} bytes of torn log tail in {}", size - intact, file);
+                WriteAheadLog.truncate(file, intact);
+            }
+        }
+        // Every write created a blueprint or raised one version, so this is never below the
+        // catalog version before the restart and collection ETags never repeat.
+        long[] catalog = {0};
+        long[] points = {0};
+        memory.forEachBlueprint(bp -> {
+            catalog[0] += 1 + bp.version();
+            points[0] += bp.pointCount();
+        });
+        memory.raiseCatalogVersion(catalog[0]);
+        log.info("Recovered {} points from {} ({} log records) in {} ms", points[0],
+                snapshots.isEmpty() ? "no snapshot" : "snapshot " + base, records,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return Math.max(base, segments.isEmpty() ? 0 : segments.get(segments.size() - 1)) + 1;
+    }
+
+    private void loadSnapshot(Path file) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16), new CRC32());
+        try (DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a blueprint snapshot: " + file);
+            while (in.readByte() != 0) {
+                long version = in.readLong();
+                byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                merge(BlueprintCodec.decode(frame), 0, version);
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) throw new IOException("Snapshot checksum mismatch: " + file);
+        }
+    }
+
+    private void replay(ByteBuffer record) {
+        byte type = record.get();
+        long version = record.getLong();
+        int start = record.getInt();
+        byte[] frame = new byte[record.remaining()];
+        record.get(frame);
+        if (type != SAVE && type != APPEND) throw new IllegalStateException("Unknown log record type " + type);
+        try {
+            merge(BlueprintCodec.decode(frame), start, version);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies a blueprint, or points of one, whose first point has ordinal {@code start}.
+     * Points below the blueprint's current count are already there and are skipped, so
+     * snapshot entries and log records can overlap.
+     */
+    private void merge(Blueprint logged, int start, long version) {
+        String author = logged.getAuthor(), name = logged.getName();
+        Blueprint bp;
+        try {
+            bp = memory.getBlueprint(author, name);
+        } catch (BlueprintNotFoundException e) {
+            bp = null;
+        }
+        try {
+            if (bp == null) {
+                if (start != 0) throw new IllegalStateException("Log appends to unknown blueprint " + author + "/" + name);
+                logged.setVersion(version);
+                memory.saveBlueprint(logged);
+                return;
+            }
+            int skip = bp.pointCount() - start;
+            if (skip < 0) throw new IllegalStateException("Log has a gap before point " + start + " of " + author + "/" + name);
+            int n = logged.pointCount();
+            if (skip < n) {
+                int[] xy = new int[(n - skip) * 2];
+                for (int i = skip; i < n; i++) {
+                    xy[(i - skip) * 2] = logged.xAt(i);
+                    xy[(i - skip) * 2 + 1] = logged.yAt(i);
+                }
+                memory.addPoints(author, name, xy);
+            }
+            if (bp.version() < version) bp.setVersion(version);
+        } catch (BlueprintNotFoundException | BlueprintPersistenceException e) {
+            throw new IllegalStateException("Log record does not apply: " + e.getMessage(), e);
+        }
+    }
+
+    // type, resulting version, ordinal of the first point, then the points as a codec frame.
+    private static byte[] record(byte type, long version, int start, Blueprint points) {
+        byte[] frame = BlueprintCodec.encode(points);
+        return ByteBuffer.allocate(13 + frame.length).put(type).putLong(version).putInt(start).put(frame).array();
+    }
+
+    private void checkLog() {
+        try {
+            wal.checkHealthy();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sync(long position) {
+        try {
+            wal.sync(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Write applied in memory but not made durable", e);
+        }
+    }
+
+    private ReentrantLock stripe(String author, String name) {
+        return stripes[stripeOf(author, name)];
+    }
+
+    private static int stripeOf(String author, String name) {
+        return (31 * author.hashCode() + name.hashCode()) & (STRIPES - 1);
+    }
+
+    private Path snapshotPath(long segment) {
+        return dir.resolve("snapshot-" + segment + ".bin");
+    }
+
+    // Numbers of the files named prefix + n + suffix, ascending.
+    private List<Long> numbered(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(f -> f.startsWith(prefix) && f.endsWith(suffix))
+                    .map(f -> Long.parseLong(f.substring(prefix.length(), f.length() - suffix.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    // Makes the snapshot rename durable; not every platform can open a directory for this.
+    private void forceDirectory() {
+        try (FileChannel d = FileChannel.open(dir, StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException e) {
+            log.debug("Could not force directory {}", dir, e);
+        }
+    }
+}
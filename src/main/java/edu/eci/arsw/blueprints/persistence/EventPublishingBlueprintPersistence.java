@@ -0,0 +1,48 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.events.BlueprintEventHub;
+import edu.eci.arsw.blueprints.model.Blueprint;
+
+import java.util.List;
+
+/**
+ * Publishes every write the wrapped persistence accepted to the {@link BlueprintEventHub}, once
+ * it has returned: rejected writes (duplicates, unknown blueprints) publish nothing. Concurrent
+ * appends to one blueprint may be published in a different order than they were stored.
+ */
+public class EventPublishingBlueprintPersistence extends ForwardingBlueprintPersistence {
+
+    private final BlueprintEventHub events;
+
+    public EventPublishingBlueprintPersistence(BlueprintPersistence delegate, BlueprintEventHub events) {
+        super(delegate);
+        this.events = events;
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        delegate.saveBlueprint(bp);
+        events.blueprintCreated(bp);
+    }
+
+    @Override
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        List<Boolean> created = delegate.saveBlueprints(bps);
+        for (int i = 0; i < created.size(); i++) {
+            if (created.get(i)) events.blueprintCreated(bps.get(i));
+        }
+        return created;
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        delegate.addPoint(author, name, x, y);
+        events.pointAdded(author, name, x, y);
+    }
+
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        delegate.addPoints(author, name, xy);
+        events.pointsAdded(author, name, xy);
+    }
+}
@@ -0,0 +1,103 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.PointRange;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Base for {@link BlueprintPersistence} decorators: forwards every call to the wrapped
+ * persistence so subclasses only override what they change.
+ */
+public abstract class ForwardingBlueprintPersistence implements BlueprintPersistence {
+
+    protected final BlueprintPersistence delegate;
+
+    protected ForwardingBlueprintPersistence(BlueprintPersistence delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        delegate.saveBlueprint(bp);
+    }
+
+    @Override
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        return delegate.saveBlueprints(bps);
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        return delegate.getBlueprint(author, name);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        return delegate.getBlueprintsByAuthor(author);
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return delegate.getAllBlueprints();
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        return delegate.getBlueprintsInBox(box);
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        delegate.forEachBlueprint(action);
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        delegate.addPoint(author, name, x, y);
+    }
+
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        delegate.addPoints(author, name, xy);
+    }
+
+    @Override
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        return delegate.getPoints(author, name, since, limit);
+    }
+
+    @Override
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        return delegate.getBlueprintSummary(author, name);
+    }
+
+    @Override
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        return delegate.getSummariesByAuthor(author);
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return delegate.getBlueprintVersion(author, name);
+    }
+
+    @Override
+    public long getAuthorVersion(String author) {
+        return delegate.getAuthorVersion(author);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return delegate.getCatalogVersion();
+    }
+}
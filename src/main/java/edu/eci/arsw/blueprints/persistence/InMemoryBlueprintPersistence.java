@@ -1,19 +1,42 @@
 package edu.eci.arsw.blueprints.persistence;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointRange;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Repository
 public class InMemoryBlueprintPersistence implements BlueprintPersistence {
 
-    private final Map<String, Blueprint> blueprints = new ConcurrentHashMap<>();
+    // author -> name -> blueprint: the author level is the index, so no separate
+    // primary map has to be kept in sync and lookups never build an "author:name" key.
+    // Both levels are sorted so keyset pages are a tailMap walk.
+    private final ConcurrentNavigableMap<String, ConcurrentNavigableMap<String, Blueprint>> blueprints =
+            new ConcurrentSkipListMap<>();
+    // Bumped after every applied write, like the per-blueprint versions.
+    private final AtomicLong catalogVersion = new AtomicLong();
+    // Points are indexed right after they are appended, so a query racing an append may miss it.
+    private final UniformGridIndex<Blueprint> spatial = new UniformGridIndex<>();
+    // Folded on every write, so a read has nothing left to visit unless the Blueprint was
+    // mutated directly; the fold on read catches up with those points.
+    private final Map<Blueprint, SummaryAccumulator> summaries = new ConcurrentHashMap<>();
 
     public InMemoryBlueprintPersistence() {
+        this(true);
+    }
+
+    /** @param sampleData start with the sample blueprints; a store recovered from disk starts empty */
+    public InMemoryBlueprintPersistence(boolean sampleData) {
+        if (!sampleData) return;
         // Sample data 1:1 style (author/name key)
         Blueprint bp1 = new Blueprint("john", "house",
                 List.of(new Point(0,0), new Point(10,0), new Point(10,10), new Point(0,10)));
@@ -21,45 +44,165 @@ public class InMemoryBlueprintPersistence implements BlueprintPersistence {
                 List.of(new Point(5,5), new Point(15,5), new Point(15,15)));
         Blueprint bp3 = new Blueprint("jane", "garden",
                 List.of(new Point(2,2), new Point(3,4), new Point(6,7)));
-        blueprints.put(keyOf(bp1), bp1);
-        blueprints.put(keyOf(bp2), bp2);
-        blueprints.put(keyOf(bp3), bp3);
+        for (Blueprint bp : List.of(bp1, bp2, bp3)) {
+            byAuthor(bp.getAuthor()).put(bp.getName(), bp);
+            index(bp);
+        }
+    }
+
+    private void index(Blueprint bp) {
+        int n = bp.pointCount();
+        for (int i = 0; i < n; i++) spatial.insert(bp, bp.xAt(i), bp.yAt(i));
+        accumulator(bp).tryFold(bp);
     }
 
-    private String keyOf(Blueprint bp) { return bp.getAuthor() + ":" + bp.getName(); }
-    private String keyOf(String author, String name) { return author + ":" + name; }
+    private ConcurrentNavigableMap<String, Blueprint> byAuthor(String author) {
+        return blueprints.computeIfAbsent(author, a -> new ConcurrentSkipListMap<>());
+    }
 
     @Override
     public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
-        String k = keyOf(bp);
-        if (blueprints.containsKey(k)) throw new BlueprintPersistenceException("Blueprint already exists: " + k);
-        blueprints.put(k, bp);
+        if (byAuthor(bp.getAuthor()).putIfAbsent(bp.getName(), bp) != null) {
+            throw new BlueprintPersistenceException("Blueprint already exists: " + bp.getAuthor() + ":" + bp.getName());
+        }
+        index(bp);
+        catalogVersion.incrementAndGet();
+    }
+
+    @Override
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        List<Boolean> created = new ArrayList<>(bps.size());
+        for (Blueprint bp : bps) {
+            boolean fresh = byAuthor(bp.getAuthor()).putIfAbsent(bp.getName(), bp) == null;
+            if (fresh) index(bp);
+            created.add(fresh);
+        }
+        if (created.contains(true)) catalogVersion.incrementAndGet();
+        return created;
     }
 
     @Override
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        Blueprint bp = blueprints.get(keyOf(author, name));
+        Map<String, Blueprint> names = blueprints.get(author);
+        Blueprint bp = names == null ? null : names.get(name);
         if (bp == null) throw new BlueprintNotFoundException("Blueprint not found: %s/%s".formatted(author, name));
         return bp;
     }
 
     @Override
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        Set<Blueprint> set = blueprints.values().stream()
-                .filter(bp -> bp.getAuthor().equals(author))
-                .collect(Collectors.toSet());
-        if (set.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
-        return set;
+        Map<String, Blueprint> names = blueprints.get(author);
+        if (names == null || names.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return new HashSet<>(names.values());
     }
 
     @Override
     public Set<Blueprint> getAllBlueprints() {
-        return new HashSet<>(blueprints.values());
+        Set<Blueprint> all = new HashSet<>();
+        for (Map<String, Blueprint> names : blueprints.values()) all.addAll(names.values());
+        return all;
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        List<Blueprint> page = new ArrayList<>(limit);
+        NavigableMap<String, ConcurrentNavigableMap<String, Blueprint>> authors =
+                afterAuthor == null ? blueprints : blueprints.tailMap(afterAuthor, true);
+        for (Map.Entry<String, ConcurrentNavigableMap<String, Blueprint>> e : authors.entrySet()) {
+            NavigableMap<String, Blueprint> names = e.getValue();
+            if (e.getKey().equals(afterAuthor)) names = names.tailMap(afterName, false);
+            for (Blueprint bp : names.values()) {
+                page.add(bp);
+                if (page.size() == limit) return page;
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        Set<Blueprint> found = spatial.candidates(box);
+        found.removeIf(bp -> !box.containsAnyPoint(bp));
+        return found;
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        for (Map<String, Blueprint> names : blueprints.values()) names.values().forEach(action);
     }
 
     @Override
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
         Blueprint bp = getBlueprint(author, name);
-        bp.addPoint(new Point(x, y));
+        bp.addPoint(x, y);
+        spatial.insert(bp, x, y);
+        accumulator(bp).tryFold(bp);
+        bp.bumpVersion();
+        catalogVersion.incrementAndGet();
+    }
+
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        Blueprint bp = getBlueprint(author, name);
+        if (xy.length == 0) return;
+        bp.addPoints(xy);
+        for (int i = 0; i < xy.length; i += 2) spatial.insert(bp, xy[i], xy[i + 1]);
+        accumulator(bp).tryFold(bp);
+        bp.bumpVersion();
+        catalogVersion.incrementAndGet();
+    }
+
+    /** Copies only the requested points out of the live blueprint. */
+    @Override
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        return PointRange.of(getBlueprint(author, name), since, limit);
+    }
+
+    @Override
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        return summarize(getBlueprint(author, name));
+    }
+
+    @Override
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        Map<String, Blueprint> names = blueprints.get(author);
+        if (names == null || names.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        List<BlueprintSummary> found = new ArrayList<>(names.size());
+        for (Blueprint bp : names.values()) found.add(summarize(bp));
+        return found;
+    }
+
+    private BlueprintSummary summarize(Blueprint bp) {
+        return accumulator(bp).fold(bp);
+    }
+
+    private SummaryAccumulator accumulator(Blueprint bp) {
+        return summaries.computeIfAbsent(bp, b -> new SummaryAccumulator());
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return getBlueprint(author, name).version();
+    }
+
+    // Each write either adds a blueprint or raises one version, so count + sum of versions
+    // strictly increases without a separate per-author counter.
+    @Override
+    public long getAuthorVersion(String author) {
+        Map<String, Blueprint> names = blueprints.get(author);
+        if (names == null) return 0;
+        long version = 0;
+        for (Blueprint bp : names.values()) version += 1 + bp.version();
+        return version;
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.get();
+    }
+
+    /** Recovery: the catalog version continues from at least {@code version}. */
+    void raiseCatalogVersion(long version) {
+        catalogVersion.accumulateAndGet(version, Math::max);
     }
 }
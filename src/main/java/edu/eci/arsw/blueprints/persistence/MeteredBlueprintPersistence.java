@@ -0,0 +1,282 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.metrics.RequestProfile;
+import edu.eci.arsw.blueprints.metrics.RequestProfile.Layer;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.PointRange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Times every persistence call as {@code blueprints.persistence} (tagged by method) and counts
+ * the points read and written. Sits outermost, so cache hits show up as fast calls.
+ */
+public class MeteredBlueprintPersistence extends ForwardingBlueprintPersistence {
+
+    private final Timer save;
+    private final Timer saveAll;
+    private final Timer get;
+    private final Timer byAuthor;
+    private final Timer all;
+    private final Timer page;
+    private final Timer forEach;
+    private final Timer inBox;
+    private final Timer addPoint;
+    private final Timer addPoints;
+    private final Timer points;
+    private final Timer summary;
+    private final Timer authorSummaries;
+    private final Timer blueprintVersion;
+    private final Timer authorVersion;
+    private final Timer catalogVersion;
+    private final Counter pointsRead;
+    private final Counter pointsWritten;
+
+    public MeteredBlueprintPersistence(BlueprintPersistence delegate, MeterRegistry meters) {
+        super(delegate);
+        this.save = timer(meters, "saveBlueprint");
+        this.saveAll = timer(meters, "saveBlueprints");
+        this.get = timer(meters, "getBlueprint");
+        this.byAuthor = timer(meters, "getBlueprintsByAuthor");
+        this.all = timer(meters, "getAllBlueprints");
+        this.page = timer(meters, "getBlueprintsPage");
+        this.forEach = timer(meters, "forEachBlueprint");
+        this.inBox = timer(meters, "getBlueprintsInBox");
+        this.addPoint = timer(meters, "addPoint");
+        this.addPoints = timer(meters, "addPoints");
+        this.points = timer(meters, "getPoints");
+        this.summary = timer(meters, "getBlueprintSummary");
+        this.authorSummaries = timer(meters, "getSummariesByAuthor");
+        this.blueprintVersion = timer(meters, "getBlueprintVersion");
+        this.authorVersion = timer(meters, "getAuthorVersion");
+        this.catalogVersion = timer(meters, "getCatalogVersion");
+        this.pointsRead = Counter.builder("blueprints.points.read").register(meters);
+        this.pointsWritten = Counter.builder("blueprints.points.written").register(meters);
+    }
+
+    private static Timer timer(MeterRegistry meters, String method) {
+        return Timer.builder("blueprints.persistence").tag("method", method).register(meters);
+    }
+
+    @Override
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        long start = System.nanoTime();
+        try {
+            delegate.saveBlueprint(bp);
+        } finally {
+            record(save, start);
+        }
+        pointsWritten.increment(bp.pointCount());
+    }
+
+    @Override
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        long start = System.nanoTime();
+        List<Boolean> created;
+        try {
+            created = delegate.saveBlueprints(bps);
+        } finally {
+            record(saveAll, start);
+        }
+        long points = 0;
+        for (int i = 0; i < bps.size(); i++) {
+            if (created.get(i)) points += bps.get(i).pointCount();
+        }
+        pointsWritten.increment(points);
+        return created;
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        Blueprint bp;
+        try {
+            bp = delegate.getBlueprint(author, name);
+        } finally {
+            record(get, start);
+        }
+        pointsRead.increment(bp.pointCount());
+        return bp;
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        Set<Blueprint> bps;
+        try {
+            bps = delegate.getBlueprintsByAuthor(author);
+        } finally {
+            record(byAuthor, start);
+        }
+        countRead(bps);
+        return bps;
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        long start = System.nanoTime();
+        Set<Blueprint> bps;
+        try {
+            bps = delegate.getAllBlueprints();
+        } finally {
+            record(all, start);
+        }
+        countRead(bps);
+        return bps;
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        long start = System.nanoTime();
+        List<Blueprint> bps;
+        try {
+            bps = delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+        } finally {
+            record(page, start);
+        }
+        countRead(bps);
+        return bps;
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        long start = System.nanoTime();
+        Set<Blueprint> bps;
+        try {
+            bps = delegate.getBlueprintsInBox(box);
+        } finally {
+            record(inBox, start);
+        }
+        countRead(bps);
+        return bps;
+    }
+
+    // The action runs inside the delegate's iteration; its time belongs to the caller's
+    // layers, so it is taken out of the persistence figure.
+    @Override
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        long[] inAction = new long[1];
+        long start = System.nanoTime();
+        try {
+            delegate.forEachBlueprint(bp -> {
+                pointsRead.increment(bp.pointCount());
+                long actionStart = System.nanoTime();
+                try {
+                    action.accept(bp);
+                } finally {
+                    inAction[0] += System.nanoTime() - actionStart;
+                }
+            });
+        } finally {
+            long nanos = System.nanoTime() - start - inAction[0];
+            forEach.record(nanos, TimeUnit.NANOSECONDS);
+            RequestProfile.add(Layer.PERSISTENCE, nanos);
+        }
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            delegate.addPoint(author, name, x, y);
+        } finally {
+            record(addPoint, start);
+        }
+        pointsWritten.increment();
+    }
+
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            delegate.addPoints(author, name, xy);
+        } finally {
+            record(addPoints, start);
+        }
+        pointsWritten.increment(xy.length / 2);
+    }
+
+    @Override
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        PointRange range;
+        try {
+            range = delegate.getPoints(author, name, since, limit);
+        } finally {
+            record(points, start);
+        }
+        pointsRead.increment(range.points().size());
+        return range;
+    }
+
+    @Override
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintSummary(author, name);
+        } finally {
+            record(summary, start);
+        }
+    }
+
+    @Override
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getSummariesByAuthor(author);
+        } finally {
+            record(authorSummaries, start);
+        }
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        long start = System.nanoTime();
+        try {
+            return delegate.getBlueprintVersion(author, name);
+        } finally {
+            record(blueprintVersion, start);
+        }
+    }
+
+    @Override
+    public long getAuthorVersion(String author) {
+        long start = System.nanoTime();
+        try {
+            return delegate.getAuthorVersion(author);
+        } finally {
+            record(authorVersion, start);
+        }
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        long start = System.nanoTime();
+        try {
+            return delegate.getCatalogVersion();
+        } finally {
+            record(catalogVersion, start);
+        }
+    }
+
+    private void countRead(Collection<Blueprint> bps) {
+        long points = 0;
+        for (Blueprint bp : bps) points += bp.pointCount();
+        pointsRead.increment(points);
+    }
+
+    private static void record(Timer timer, long start) {
+        long nanos = System.nanoTime() - start;
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+        RequestProfile.add(Layer.PERSISTENCE, nanos);
+    }
+}
@@ -0,0 +1,275 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintEntity;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointRange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Stores each blueprint's points in the {@code packed_points} column of its own row, as
+ * consecutive big-endian (x, y) int pairs, instead of one {@code point} row per coordinate.
+ * Every read is one row per blueprint and an append is a single
+ * {@code packed_points || ?} update. The {@code point} table is not used; existing data is
+ * moved with {@code db/migration-packed-points.sql}.
+ * Profile: "packed" (ignored with "durable", which has no data source)
+ */
+@Repository
+@Profile("packed & !durable")
+public class PackedBlueprintPersistence implements BlueprintPersistence {
+
+    private static final int POINT_BYTES = 8;
+    private static final int FLUSH_ROWS = 500;
+    private static final byte[] NO_POINTS = new byte[0];
+    private static final String SELECT = "select author, name, version, packed_points from blueprint";
+
+    private static final RowMapper<Blueprint> ROW = (rs, i) -> {
+        Blueprint bp = unpack(rs.getString("author"), rs.getString("name"), rs.getBytes("packed_points"));
+        bp.setVersion(rs.getLong("version"));
+        return bp;
+    };
+
+    private final JdbcTemplate jdbc;
+    private final BlueprintEntityRepository blueprintRepo;
+    private final CatalogVersionCounter catalogVersion;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    PackedBlueprintPersistence(JdbcTemplate jdbc, BlueprintEntityRepository blueprintRepo,
+                               CatalogVersionCounter catalogVersion) {
+        this.jdbc = jdbc;
+        this.blueprintRepo = blueprintRepo;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Override
+    @Transactional
+    public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
+        if (blueprintRepo.findIdByAuthorAndName(bp.getAuthor(), bp.getName()).isPresent()) {
+            throw new BlueprintPersistenceException("Blueprint already exists: " + bp.getAuthor() + ":" + bp.getName());
+        }
+        blueprintRepo.save(toEntity(bp));
+        catalogVersion.bump(bp.getAuthor(), bp.getName());
+    }
+
+    /** Same duplicate handling and batching as the row layout, with one row per blueprint. */
+    @Override
+    @Transactional
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        if (bps.isEmpty()) return List.of();
+        Set<String> authors = new HashSet<>();
+        for (Blueprint bp : bps) authors.add(bp.getAuthor());
+        Set<Map.Entry<String, String>> taken = new HashSet<>();
+        for (Object[] key : blueprintRepo.findKeysByAuthorIn(authors)) {
+            taken.add(Map.entry((String) key[0], (String) key[1]));
+        }
+        List<Boolean> created = new ArrayList<>(bps.size());
+        Blueprint last = null;
+        int pendingRows = 0;
+        for (Blueprint bp : bps) {
+            boolean fresh = taken.add(Map.entry(bp.getAuthor(), bp.getName()));
+            created.add(fresh);
+            if (!fresh) continue;
+            last = bp;
+            entityManager.persist(toEntity(bp));
+            if (++pendingRows >= FLUSH_ROWS) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingRows = 0;
+            }
+        }
+        if (last != null) catalogVersion.bump(last.getAuthor(), last.getName());
+        return created;
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        List<Blueprint> found = jdbc.query(SELECT + " where author = ? and name = ?", ROW, author, name);
+        if (found.isEmpty()) throw new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name);
+        return found.get(0);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        List<Blueprint> found = jdbc.query(SELECT + " where author = ? order by name", ROW, author);
+        if (found.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return new HashSet<>(found);
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        return new HashSet<>(jdbc.query(SELECT + " order by author, name", ROW));
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        if (afterAuthor == null) return jdbc.query(SELECT + " order by author, name limit ?", ROW, limit);
+        return jdbc.query(SELECT + " where author > ? or (author = ? and name > ?) order by author, name limit ?",
+                ROW, afterAuthor, afterAuthor, afterName, limit);
+    }
+
+    /** Streams row by row through a DB cursor; a blueprint is complete as soon as its row is read. */
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        jdbc.query(con -> {
+            var ps = con.prepareStatement(SELECT + " order by author, name");
+            ps.setFetchSize(256);
+            return ps;
+        }, (RowCallbackHandler) rs -> action.accept(ROW.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    @Transactional
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        addPoints(author, name, new int[] {x, y});
+    }
+
+    /**
+     * Appends the points, bumps the version and updates the summary columns in one statement,
+     * whatever the batch size; the database rewrites the packed value, so no point row is added
+     * and nothing is read back. The spatial cells are recorded in the same transaction.
+     */
+    @Override
+    @Transactional
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        PointBatch batch = PointBatch.of(xy);
+        if (batch.count() == 0) {
+            if (blueprintRepo.findIdByAuthorAndName(author, name).isPresent()) return;
+            throw new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name);
+        }
+        ByteBuffer points = ByteBuffer.allocate(batch.count() * POINT_BYTES);
+        for (int c : xy) points.putInt(c);
+        int updated = blueprintRepo.appendPacked(author, name, points.array(), NO_POINTS, batch.count(),
+                batch.minX(), batch.minY(), batch.maxX(), batch.maxY(),
+                batch.firstX(), batch.firstY(), batch.lastX(), batch.lastY(), batch.length());
+        if (updated == 0) throw new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name);
+        for (long cell : batch.cells()) blueprintRepo.addCell(author, name, cell);
+        catalogVersion.bump(author, name);
+    }
+
+    /**
+     * One row read: the version, the point count and only the bytes of the range, cut out by
+     * {@code substring} in the database. See {@code db/migration-packed-range-reads.sql} for
+     * keeping Postgres from decompressing the whole value to do it.
+     */
+    @Override
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        // Offsets past the end give an empty slice; clamped so they still fit an int.
+        int from = (int) Math.min((long) since * POINT_BYTES, Integer.MAX_VALUE - 1) + 1;
+        int length = (int) Math.min((long) limit * POINT_BYTES, Integer.MAX_VALUE);
+        List<PointRange> found = jdbc.query(
+                "select version, point_count, substring(packed_points from ? for ?) as slice"
+                        + " from blueprint where author = ? and name = ?",
+                (rs, i) -> {
+                    byte[] slice = rs.getBytes("slice");
+                    int n = slice == null ? 0 : slice.length / POINT_BYTES;
+                    List<Point> points = new ArrayList<>(n);
+                    ByteBuffer buf = n == 0 ? null : ByteBuffer.wrap(slice);
+                    for (int p = 0; p < n; p++) points.add(new Point(buf.getInt(), buf.getInt()));
+                    return new PointRange(author, name, rs.getLong("version"), rs.getInt("point_count"), since, points);
+                }, from, length, author, name);
+        if (found.isEmpty()) throw new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name);
+        return found.get(0);
+    }
+
+    /** Candidate rows come from the {@code blueprint_cell} index, as in the row layout. */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        Set<Blueprint> found = new HashSet<>();
+        if (SpatialGrid.cellCount(box) > SpatialGrid.MAX_QUERY_CELLS) {
+            forEachBlueprint(bp -> {
+                if (box.containsAnyPoint(bp)) found.add(bp);
+            });
+            return found;
+        }
+        List<Integer> ids = blueprintRepo.findIdsInCells(SpatialGrid.cellsOf(box));
+        for (int from = 0; from < ids.size(); from += SpatialGrid.ID_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + SpatialGrid.ID_CHUNK));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            for (Blueprint bp : jdbc.query(SELECT + " where id in (" + in + ")", ROW, chunk.toArray())) {
+                if (box.containsAnyPoint(bp)) found.add(bp);
+            }
+        }
+        return found;
+    }
+
+    /** Read from the summary columns of the blueprint row; no point is loaded. */
+    @Override
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        return blueprintRepo.findSummary(author, name).map(BlueprintSummaryRow::toSummary)
+                .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
+    }
+
+    @Override
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        List<BlueprintSummary> found = new ArrayList<>();
+        for (BlueprintSummaryRow row : blueprintRepo.findSummariesByAuthor(author)) found.add(row.toSummary());
+        if (found.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return found;
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return blueprintRepo.findVersionByAuthorAndName(author, name)
+                .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
+    }
+
+    @Override
+    public long getAuthorVersion(String author) {
+        return blueprintRepo.aggregateVersionByAuthor(author);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.current();
+    }
+
+    private static BlueprintEntity toEntity(Blueprint bp) {
+        BlueprintEntity entity = new BlueprintEntity(bp.getAuthor(), bp.getName());
+        entity.setPackedPoints(pack(bp));
+        entity.setCells(SpatialGrid.cellsOf(bp));
+        SummaryAccumulator summary = new SummaryAccumulator();
+        summary.fold(bp);
+        summary.applyTo(entity);
+        return entity;
+    }
+
+    static byte[] pack(Blueprint bp) {
+        int n = bp.pointCount();
+        ByteBuffer buf = ByteBuffer.allocate(n * POINT_BYTES);
+        for (int i = 0; i < n; i++) buf.putInt(bp.xAt(i)).putInt(bp.yAt(i));
+        return buf.array();
+    }
+
+    /** Rows written by the row layout have no packed value and read as blueprints without points. */
+    static Blueprint unpack(String author, String name, byte[] packed) {
+        int n = packed == null ? 0 : packed.length / POINT_BYTES;
+        Blueprint.Builder bp = Blueprint.builder(author, name, n);
+        if (n > 0) {
+            ByteBuffer buf = ByteBuffer.wrap(packed);
+            for (int i = 0; i < n; i++) bp.add(buf.getInt(), buf.getInt());
+        }
+        return bp.build();
+    }
+}
@@ -0,0 +1,40 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Points appended in one write, as consecutive x, y pairs, with the aggregates the stored
+ * summary columns need. The database merges them into the row in a single update
+ * ({@link BlueprintEntityRepository#recordAppends}), whatever the number of points.
+ */
+record PointBatch(int[] xy, int count, int minX, int minY, int maxX, int maxY, double length) {
+
+    static PointBatch of(int[] xy) {
+        if (xy.length % 2 != 0) throw new IllegalArgumentException("Odd number of coordinates: " + xy.length);
+        int count = xy.length / 2;
+        if (count == 0) return new PointBatch(xy, 0, 0, 0, 0, 0, 0);
+        int minX = xy[0], minY = xy[1], maxX = xy[0], maxY = xy[1];
+        double length = 0;
+        for (int i = 2; i < xy.length; i += 2) {
+            minX = Math.min(minX, xy[i]);
+            minY = Math.min(minY, xy[i + 1]);
+            maxX = Math.max(maxX, xy[i]);
+            maxY = Math.max(maxY, xy[i + 1]);
+            length += SummaryAccumulator.distance(xy[i - 2], xy[i - 1], xy[i], xy[i + 1]);
+        }
+        return new PointBatch(xy, count, minX, minY, maxX, maxY, length);
+    }
+
+    int firstX() { return xy[0]; }
+    int firstY() { return xy[1]; }
+    int lastX() { return xy[xy.length - 2]; }
+    int lastY() { return xy[xy.length - 1]; }
+
+    /** Spatial cells holding at least one of the points. */
+    Set<Long> cells() {
+        Set<Long> cells = new HashSet<>();
+        for (int i = 0; i < xy.length; i += 2) cells.add(SpatialGrid.cellOf(xy[i], xy[i + 1]));
+        return cells;
+    }
+}
@@ -1,9 +1,21 @@
 package edu.eci.arsw.blueprints.persistence;
 
+import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.model.PointEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PointEntityRepository extends JpaRepository<PointEntity, Integer> {
-}
\ No newline at end of file
+
+    /** Points with ordinal in [from, to), in order: a range scan of {@code point_blueprint_ordinal}. */
+    @Query("""
+            select new edu.eci.arsw.blueprints.model.Point(p.x, p.y) from PointEntity p
+            where p.blueprint.id = :id and p.ordinal >= :from and p.ordinal < :to
+            order by p.ordinal""")
+    List<Point> findRange(@Param("id") Integer id, @Param("from") int from, @Param("to") int to);
+}
@@ -1,73 +1,252 @@
 package edu.eci.arsw.blueprints.persistence;
 
 import edu.eci.arsw.blueprints.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+// Not created with the "durable" profile, which runs without a data source.
 @Repository
-@Primary
+@Profile("!durable")
 public class PostgresBlueprintPersistence implements BlueprintPersistence {
+    // Keep in line with hibernate.jdbc.batch_size.
+    private static final int FLUSH_ROWS = 500;
+
     private final BlueprintEntityRepository blueprintRepo;
     private final PointEntityRepository pointRepo;
+    private final CatalogVersionCounter catalogVersion;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public PostgresBlueprintPersistence(BlueprintEntityRepository blueprintRepo, PointEntityRepository pointRepo) {
+    PostgresBlueprintPersistence(BlueprintEntityRepository blueprintRepo, PointEntityRepository pointRepo,
+                                 CatalogVersionCounter catalogVersion) {
         this.blueprintRepo = blueprintRepo;
         this.pointRepo = pointRepo;
+        this.catalogVersion = catalogVersion;
     }
 
     @Override
+    @Transactional
     public void saveBlueprint(Blueprint bp) throws BlueprintPersistenceException {
-        if (blueprintRepo.findByAuthorAndName(bp.getAuthor(), bp.getName()).isPresent()) {
+        if (blueprintRepo.findIdByAuthorAndName(bp.getAuthor(), bp.getName()).isPresent()) {
             throw new BlueprintPersistenceException("Blueprint already exists: " + bp.getAuthor() + ":" + bp.getName());
         }
-        BlueprintEntity entity = new BlueprintEntity(bp.getAuthor(), bp.getName());
-        List<PointEntity> points = bp.getPoints().stream()
-                .map(p -> new PointEntity(entity, p.x(), p.y()))
-                .collect(Collectors.toList());
-        entity.setPoints(points);
-        blueprintRepo.save(entity);
+        blueprintRepo.save(toEntity(bp));
+        catalogVersion.bump(bp.getAuthor(), bp.getName());
     }
 
+    /**
+     * Bulk insert: one duplicate check for all the authors involved, then plain persists
+     * flushed every {@link #FLUSH_ROWS} rows so Hibernate sends them as JDBC batches
+     * (sequence ids make that possible) and the session does not keep growing.
+     */
+    @Override
+    @Transactional
+    public List<Boolean> saveBlueprints(List<Blueprint> bps) {
+        if (bps.isEmpty()) return List.of();
+        Set<String> authors = new HashSet<>();
+        for (Blueprint bp : bps) authors.add(bp.getAuthor());
+        Set<Map.Entry<String, String>> taken = new HashSet<>();
+        for (Object[] key : blueprintRepo.findKeysByAuthorIn(authors)) {
+            taken.add(Map.entry((String) key[0], (String) key[1]));
+        }
+        List<Boolean> created = new ArrayList<>(bps.size());
+        Blueprint last = null;
+        int pendingRows = 0;
+        for (Blueprint bp : bps) {
+            boolean fresh = taken.add(Map.entry(bp.getAuthor(), bp.getName()));
+            created.add(fresh);
+            if (!fresh) continue;
+            last = bp;
+            entityManager.persist(toEntity(bp));
+            pendingRows += 1 + bp.pointCount();
+            if (pendingRows >= FLUSH_ROWS) {
+                entityManager.flush();
+                entityManager.clear();
+                pendingRows = 0;
+            }
+        }
+        if (last != null) catalogVersion.bump(last.getAuthor(), last.getName());
+        return created;
+    }
+
+    // Reads go through flat blueprint/point projections: one statement per result set
+    // instead of one per blueprint, assembled straight into Blueprint without entities.
+
     @Override
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        BlueprintEntity entity = blueprintRepo.findByAuthorAndName(author, name)
-                .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
-        return toBlueprint(entity);
+        List<Blueprint> found = BlueprintRowAssembler.assemble(blueprintRepo.findRowsByAuthorAndName(author, name));
+        if (found.isEmpty()) throw new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name);
+        return found.get(0);
     }
 
     @Override
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        List<BlueprintEntity> entities = blueprintRepo.findByAuthor(author);
-        if (entities.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
-        return entities.stream().map(this::toBlueprint).collect(Collectors.toSet());
+        List<Blueprint> found = BlueprintRowAssembler.assemble(blueprintRepo.findRowsByAuthor(author));
+        if (found.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return new HashSet<>(found);
     }
 
     @Override
     public Set<Blueprint> getAllBlueprints() {
-        return blueprintRepo.findAll().stream().map(this::toBlueprint).collect(Collectors.toSet());
+        return new HashSet<>(BlueprintRowAssembler.assemble(blueprintRepo.findAllRows()));
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        List<Integer> ids = afterAuthor == null
+                ? blueprintRepo.findFirstPageIds(page)
+                : blueprintRepo.findPageIdsAfter(afterAuthor, afterName, page);
+        if (ids.isEmpty()) return List.of();
+        return BlueprintRowAssembler.assemble(blueprintRepo.findRowsByIds(ids));
     }
 
+    /** Reads through a DB cursor and emits each blueprint once its rows are complete, so memory stays bounded. */
     @Override
+    @Transactional(readOnly = true)
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        BlueprintRowAssembler assembler = new BlueprintRowAssembler(action);
+        try (Stream<BlueprintPointRow> rows = blueprintRepo.streamAllRows()) {
+            rows.forEach(assembler);
+        }
+        assembler.finish();
+    }
+
+    private static BlueprintEntity toEntity(Blueprint bp) {
+        BlueprintEntity entity = new BlueprintEntity(bp.getAuthor(), bp.getName());
+        int n = bp.pointCount();
+        List<PointEntity> points = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            points.add(new PointEntity(entity, i, bp.xAt(i), bp.yAt(i)));
+        }
+        entity.setPoints(points);
+        entity.setCells(SpatialGrid.cellsOf(bp));
+        SummaryAccumulator summary = new SummaryAccumulator();
+        summary.fold(bp);
+        summary.applyTo(entity);
+        return entity;
+    }
+
+    @Override
+    @Transactional
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
-        BlueprintEntity entity = blueprintRepo.findByAuthorAndName(author, name)
+        addPoints(author, name, new int[] {x, y});
+    }
+
+    /**
+     * Appends the point rows without loading the blueprint: only its id is resolved and the
+     * blueprint stays an uninitialized reference, so the cost does not grow with its point
+     * count. The rows are persisted like {@link #saveBlueprints} does, so Hibernate sends them
+     * as JDBC batches. The version bump, the summary columns and the spatial cells commit
+     * together with the points.
+     */
+    @Override
+    @Transactional
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        Integer id = blueprintRepo.findIdByAuthorAndName(author, name)
                 .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
-        PointEntity point = new PointEntity(entity, x, y);
-        entity.getPoints().add(point);
-        blueprintRepo.save(entity);
+        PointBatch batch = PointBatch.of(xy);
+        if (batch.count() == 0) return;
+        // The summary update takes the row lock first, so concurrent appends get their ordinals
+        // from point_count in the same order in which they were folded into the summary.
+        blueprintRepo.recordAppends(id, batch.count(), batch.minX(), batch.minY(), batch.maxX(), batch.maxY(),
+                batch.firstX(), batch.firstY(), batch.lastX(), batch.lastY(), batch.length());
+        int ordinal = blueprintRepo.findPointCountById(id) - batch.count();
+        for (int i = 0; i < batch.count(); i++) {
+            entityManager.persist(new PointEntity(blueprintRepo.getReferenceById(id), ordinal + i, xy[i * 2], xy[i * 2 + 1]));
+            if ((i + 1) % FLUSH_ROWS == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        for (long cell : batch.cells()) blueprintRepo.addCell(author, name, cell);
+        catalogVersion.bump(author, name);
     }
 
-    private Blueprint toBlueprint(BlueprintEntity entity) {
-        List<Point> points = entity.getPoints().stream()
-                .map(p -> new Point(p.getX(), p.getY()))
-                .collect(Collectors.toList());
-        return new Blueprint(entity.getAuthor(), entity.getName(), points);
+    /**
+     * Reads the version and point count, then only the points in range through the
+     * {@code (blueprint_id, ordinal)} index. The range is capped at that point count, so an
+     * append committing between the two statements adds nothing the version does not cover.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        BlueprintVersionRow row = blueprintRepo.findVersionRow(author, name)
+                .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
+        int to = (int) Math.min((long) since + limit, row.pointCount());
+        List<Point> points = since < to ? pointRepo.findRange(row.id(), since, to) : List.of();
+        return new PointRange(author, name, row.version(), row.pointCount(), since, points);
+    }
+
+    /**
+     * Candidates come from the {@code blueprint_cell} index and only their points are loaded;
+     * boxes too large for a cell lookup fall back to streaming the catalog.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        Set<Blueprint> found = new HashSet<>();
+        if (SpatialGrid.cellCount(box) > SpatialGrid.MAX_QUERY_CELLS) {
+            forEachBlueprint(bp -> {
+                if (box.containsAnyPoint(bp)) found.add(bp);
+            });
+            return found;
+        }
+        List<Integer> ids = blueprintRepo.findIdsInCells(SpatialGrid.cellsOf(box));
+        for (int from = 0; from < ids.size(); from += SpatialGrid.ID_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(ids.size(), from + SpatialGrid.ID_CHUNK));
+            for (Blueprint bp : BlueprintRowAssembler.assemble(blueprintRepo.findRowsByIds(chunk))) {
+                if (box.containsAnyPoint(bp)) found.add(bp);
+            }
+        }
+        return found;
+    }
+
+    /** Read from the summary columns of the blueprint row; no point is loaded. */
+    @Override
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        return blueprintRepo.findSummary(author, name).map(BlueprintSummaryRow::toSummary)
+                .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
+    }
+
+    @Override
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        List<BlueprintSummary> found = new ArrayList<>();
+        for (BlueprintSummaryRow row : blueprintRepo.findSummariesByAuthor(author)) found.add(row.toSummary());
+        if (found.isEmpty()) throw new BlueprintNotFoundException("No blueprints for author: " + author);
+        return found;
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return blueprintRepo.findVersionByAuthorAndName(author, name)
+                .orElseThrow(() -> new BlueprintNotFoundException("Blueprint not found: " + author + "/" + name));
+    }
+
+    @Override
+    public long getAuthorVersion(String author) {
+        return blueprintRepo.aggregateVersionByAuthor(author);
+    }
+
+    /** Sum of the {@code catalog_version} stripes: the same cost for any catalog size. */
+    @Override
+    public long getCatalogVersion() {
+        return catalogVersion.current();
     }
 }
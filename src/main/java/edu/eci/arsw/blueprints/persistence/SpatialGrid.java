@@ -0,0 +1,65 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Uniform grid shared by every spatial index: a blueprint is indexed under each cell holding
+ * at least one of its points, so a box query only has to look at blueprints in the cells the
+ * box overlaps and then check their points. The cell size is part of the stored data in
+ * Postgres ({@code blueprint_cell}); changing it means rebuilding that table.
+ */
+final class SpatialGrid {
+
+    static final int CELL_SIZE = 64;
+    // Boxes spanning more cells than this are answered by a scan instead of a cell lookup.
+    static final int MAX_QUERY_CELLS = 4096;
+    // Candidate blueprints are loaded this many ids per statement. A dense region can match
+    // any number of blueprints, and one IN list per match would exceed the driver's bind
+    // parameter limit (32767 in PostgreSQL) and give every result size its own plan.
+    static final int ID_CHUNK = 1000;
+
+    private SpatialGrid() { }
+
+    static long cellOf(int x, int y) {
+        return key(Math.floorDiv(x, CELL_SIZE), Math.floorDiv(y, CELL_SIZE));
+    }
+
+    /** Cells holding at least one point of {@code bp}. */
+    static Set<Long> cellsOf(Blueprint bp) {
+        int n = bp.pointCount();
+        Set<Long> cells = new HashSet<>();
+        for (int i = 0; i < n; i++) cells.add(cellOf(bp.xAt(i), bp.yAt(i)));
+        return cells;
+    }
+
+    static long cellCount(BoundingBox box) {
+        long dx = (long) Math.floorDiv(box.maxX(), CELL_SIZE) - Math.floorDiv(box.minX(), CELL_SIZE) + 1;
+        long dy = (long) Math.floorDiv(box.maxY(), CELL_SIZE) - Math.floorDiv(box.minY(), CELL_SIZE) + 1;
+        return dx * dy;
+    }
+
+    /** Cells overlapped by {@code box}; callers check {@link #cellCount} first. */
+    static Set<Long> cellsOf(BoundingBox box) {
+        int cx0 = Math.floorDiv(box.minX(), CELL_SIZE), cx1 = Math.floorDiv(box.maxX(), CELL_SIZE);
+        int cy0 = Math.floorDiv(box.minY(), CELL_SIZE), cy1 = Math.floorDiv(box.maxY(), CELL_SIZE);
+        Set<Long> cells = new HashSet<>();
+        for (int cx = cx0; cx <= cx1; cx++) {
+            for (int cy = cy0; cy <= cy1; cy++) cells.add(key(cx, cy));
+        }
+        return cells;
+    }
+
+    static boolean overlaps(long cell, BoundingBox box) {
+        int cx = (int) (cell >> 32), cy = (int) cell;
+        return cx >= Math.floorDiv(box.minX(), CELL_SIZE) && cx <= Math.floorDiv(box.maxX(), CELL_SIZE)
+                && cy >= Math.floorDiv(box.minY(), CELL_SIZE) && cy <= Math.floorDiv(box.maxY(), CELL_SIZE);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,85 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintEntity;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Running count, bounds and polyline length of a blueprint. {@link #fold} only visits points
+ * published since the previous call, so keeping a summary current costs O(1) per appended
+ * point. Folds are serialized; the published points of a {@link Blueprint} are a prefix that
+ * never changes, so they are always folded in order. Writers use {@link #tryFold}, which never
+ * waits: if another thread is folding, the points it misses are left for the next fold, and a
+ * read always folds everything published before it.
+ */
+final class SummaryAccumulator {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int count;
+    private int minX, minY, maxX, maxY;
+    private int firstX, firstY, lastX, lastY;
+    private double length;
+
+    /** Folds the points of {@code bp} not seen yet and returns the summary so far. */
+    BlueprintSummary fold(Blueprint bp) {
+        lock.lock();
+        try {
+            int n = bp.pointCount();
+            for (int i = count; i < n; i++) add(bp.xAt(i), bp.yAt(i));
+            return toSummary(bp.getAuthor(), bp.getName());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Folds the points of {@code bp} not seen yet unless another fold is running. Appends call
+     * this so concurrent writers to one blueprint do not queue on the lock.
+     */
+    void tryFold(Blueprint bp) {
+        if (!lock.tryLock()) return;
+        try {
+            int n = bp.pointCount();
+            for (int i = count; i < n; i++) add(bp.xAt(i), bp.yAt(i));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Stores the aggregates in the Postgres summary columns of a new blueprint row. */
+    void applyTo(BlueprintEntity entity) {
+        if (count == 0) return;
+        entity.setSummary(count, minX, minY, maxX, maxY, firstX, firstY, lastX, lastY, length);
+    }
+
+    private void add(int x, int y) {
+        if (count == 0) {
+            minX = maxX = firstX = x;
+            minY = maxY = firstY = y;
+        } else {
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            length += distance(lastX, lastY, x, y);
+        }
+        lastX = x;
+        lastY = y;
+        count++;
+    }
+
+    private BlueprintSummary toSummary(String author, String name) {
+        if (count == 0) return new BlueprintSummary(author, name, 0, null, 0, 0);
+        return new BlueprintSummary(author, name, count, new BoundingBox(minX, minY, maxX, maxY),
+                length, length + distance(lastX, lastY, firstX, firstY));
+    }
+
+    // Coordinates span the whole int range; subtract as doubles so nothing overflows.
+    static double distance(int x1, int y1, int x2, int y2) {
+        double dx = (double) x2 - x1, dy = (double) y2 - y1;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
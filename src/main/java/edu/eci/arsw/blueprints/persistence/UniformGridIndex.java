@@ -0,0 +1,38 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.BoundingBox;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory {@link SpatialGrid}: cell to the values with a point in it. Only grows, like the
+ * blueprints it indexes; safe for concurrent inserts and queries.
+ */
+class UniformGridIndex<V> {
+
+    private final Map<Long, Set<V>> cells = new ConcurrentHashMap<>();
+
+    void insert(V value, int x, int y) {
+        cells.computeIfAbsent(SpatialGrid.cellOf(x, y), c -> ConcurrentHashMap.newKeySet()).add(value);
+    }
+
+    /** Values with a point in some cell overlapped by {@code box}; a superset of the exact answer. */
+    Set<V> candidates(BoundingBox box) {
+        Set<V> out = new HashSet<>();
+        // Walk whichever is smaller: the cells under the box or the occupied cells.
+        if (SpatialGrid.cellCount(box) <= cells.size()) {
+            for (long cell : SpatialGrid.cellsOf(box)) {
+                Set<V> values = cells.get(cell);
+                if (values != null) out.addAll(values);
+            }
+        } else {
+            for (Map.Entry<Long, Set<V>> e : cells.entrySet()) {
+                if (SpatialGrid.overlaps(e.getKey(), box)) out.addAll(e.getValue());
+            }
+        }
+        return out;
+    }
+}
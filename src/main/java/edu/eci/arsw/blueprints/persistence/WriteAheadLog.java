@@ -0,0 +1,206 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log split in numbered segments ({@code wal-<n>.log}), written through a
+ * {@link FileChannel}. A record is {@code int length, int crc32, payload}; a torn or corrupt
+ * record ends the segment on replay.
+ *
+ * <p>{@link #append} only copies the record to a memory buffer and returns its end position;
+ * {@link #sync} makes everything up to a position durable. Syncs are group commits: the first
+ * waiter writes and forces every record appended so far, and writers that queued behind it
+ * usually find their records already durable. Positions grow across segments.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final int HEADER_BYTES = 8;
+
+    private final Path dir;
+    private final boolean fsync;
+    // pending, appended and segmentBytes are guarded by appendLock; channel and segment by
+    // syncLock, which is always taken before appendLock.
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(1 << 16);
+    private long appended;
+    private long segmentBytes;
+    private volatile long durable;
+    // Once a write fails, the buffered records it took are gone: every later sync fails too.
+    private volatile IOException failure;
+    private FileChannel channel;
+    private long segment;
+
+    /** Starts a new, empty segment {@code segment}; existing segments are left alone. */
+    WriteAheadLog(Path dir, long segment, boolean fsync) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        this.segment = segment;
+        this.channel = open(segment);
+    }
+
+    static Path segmentPath(Path dir, long segment) {
+        return dir.resolve("wal-" + segment + ".log");
+    }
+
+    /** Buffers one record; returns the position {@link #sync} must reach for it to be durable. */
+    long append(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        byte[] header = ByteBuffer.allocate(HEADER_BYTES).putInt(payload.length).putInt((int) crc.getValue()).array();
+        appendLock.lock();
+        try {
+            pending.write(header, 0, HEADER_BYTES);
+            pending.write(payload, 0, payload.length);
+            appended += HEADER_BYTES + payload.length;
+            segmentBytes += HEADER_BYTES + payload.length;
+            return appended;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Returns once every record up to {@code position} is written (and forced, with fsync on). */
+    void sync(long position) throws IOException {
+        if (durable >= position) return;
+        checkHealthy();
+        syncLock.lock();
+        try {
+            if (durable >= position) return;
+            writePending();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Fails if an earlier write to the log failed, so no write should be applied any more. */
+    void checkHealthy() throws IOException {
+        IOException e = failure;
+        if (e != null) throw new IOException("Write-ahead log failed earlier", e);
+    }
+
+    /** Bytes in the current segment, including records not synced yet. */
+    long segmentBytes() {
+        appendLock.lock();
+        try {
+            return segmentBytes;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Makes the current segment durable, closes it and starts segment {@code n + 1}; returns
+     * {@code n + 1}. Every record appended before the call is in a segment below the result.
+     */
+    long rotate() throws IOException {
+        syncLock.lock();
+        try {
+            writePending();
+            FileChannel next = open(segment + 1);
+            channel.close();
+            channel = next;
+            segment++;
+            appendLock.lock();
+            try {
+                segmentBytes = 0;
+            } finally {
+                appendLock.unlock();
+            }
+            return segment;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        syncLock.lock();
+        try {
+            writePending();
+            channel.close();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Caller holds syncLock.
+    private void writePending() throws IOException {
+        checkHealthy();
+        ByteArrayOutputStream batch;
+        long end;
+        appendLock.lock();
+        try {
+            if (appended == durable) return;
+            batch = pending;
+            pending = new ByteArrayOutputStream(1 << 16);
+            end = appended;
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(batch.toByteArray());
+            while (bytes.hasRemaining()) channel.write(bytes);
+            if (fsync) channel.force(false);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        durable = end;
+    }
+
+    private FileChannel open(long n) throws IOException {
+        return FileChannel.open(segmentPath(dir, n),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Hands every intact record of a segment to {@code action}, in order, and returns the length
+     * of the intact prefix; it is shorter than the file if the last write was torn or corrupt.
+     */
+    static long replay(Path file, Consumer<ByteBuffer> action) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long offset = 0;
+            while (offset + HEADER_BYTES <= size) {
+                header.clear();
+                readFully(in, header, offset);
+                int length = header.getInt(0);
+                int checksum = header.getInt(4);
+                if (length < 0 || offset + HEADER_BYTES + length > size) break;
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(in, payload, offset + HEADER_BYTES);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) break;
+                action.accept(payload.flip());
+                offset += HEADER_BYTES + length;
+            }
+            return offset;
+        }
+    }
+
+    /** Cuts a segment back to its intact prefix, as returned by {@link #replay}. */
+    static void truncate(Path file, long length) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            out.truncate(length);
+            out.force(true);
+        }
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer into, long position) throws IOException {
+        while (into.hasRemaining()) {
+            if (in.read(into, position + into.position()) < 0) throw new IOException("Unexpected end of segment");
+        }
+    }
+}
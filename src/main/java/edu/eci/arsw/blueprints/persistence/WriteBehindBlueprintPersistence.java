@@ -0,0 +1,340 @@
+package edu.eci.arsw.blueprints.persistence;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.PointRange;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Acknowledges point appends once they are in a bounded per-blueprint buffer and writes them
+ * later with one {@link BlueprintPersistence#addPoints} call per buffer, so a burst of appends
+ * becomes one transaction and one batched insert. A background thread flushes every buffer
+ * each {@code flushInterval}, and a buffer as soon as it holds {@code batchSize} points. A
+ * buffer never holds more than {@code maxPending} points: an append that finds it full flushes
+ * it on the caller's thread, so writers slow down to the store's pace instead of queueing
+ * without bound. A blueprint has one flush at a time, so its points reach the store in the
+ * order they were accepted.
+ *
+ * <p>Reads see acknowledged appends: a read that could include buffered points flushes them
+ * first (the blueprint's buffer, its author's or all of them), so versions, ETags and
+ * summaries always come from the store. A failed background flush keeps its points and is
+ * retried on the next tick; {@link #close} flushes whatever is left.
+ * Profile: "write-behind"
+ */
+public class WriteBehindBlueprintPersistence extends ForwardingBlueprintPersistence implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBlueprintPersistence.class);
+    private static final int INITIAL_POINTS = 16;
+
+    private record Key(String author, String name) { }
+
+    private final int batchSize;
+    private final int maxPending;
+    private final ConcurrentHashMap<Key, Buffer> buffers = new ConcurrentHashMap<>();
+    // Buffers holding points: flushes and reads that span blueprints only visit these.
+    private final Set<Buffer> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong flushes = new AtomicLong();
+
+    /**
+     * @param batchSize     buffered points that trigger a flush before the next tick
+     * @param maxPending    points a buffer can hold; appends beyond it flush on the caller's thread
+     * @param flushInterval longest time an acknowledged point waits in a buffer, unless flushes fail
+     */
+    public WriteBehindBlueprintPersistence(BlueprintPersistence delegate, int batchSize, int maxPending,
+                                           Duration flushInterval, MeterRegistry meters) {
+        super(delegate);
+        if (batchSize < 1 || maxPending < batchSize) {
+            throw new IllegalArgumentException("Need 1 <= batchSize <= maxPending, got " + batchSize + " and " + maxPending);
+        }
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "blueprints-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        long nanos = flushInterval.toNanos();
+        flusher.scheduleWithFixedDelay(this::flushAllQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+        Gauge.builder("blueprints.write-behind.pending", this, WriteBehindBlueprintPersistence::pendingPoints)
+                .register(meters);
+        FunctionCounter.builder("blueprints.write-behind.flushes", flushes, AtomicLong::get).register(meters);
+    }
+
+    /** Points acknowledged but not yet written to the store. */
+    public long pendingPoints() {
+        long pending = 0;
+        for (Buffer buffer : dirty) {
+            buffer.lock.lock();
+            try {
+                pending += buffer.count;
+            } finally {
+                buffer.lock.unlock();
+            }
+        }
+        return pending;
+    }
+
+    @Override
+    public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+        Buffer buffer = buffer(author, name);
+        for (;;) {
+            buffer.lock.lock();
+            try {
+                if (buffer.count < maxPending) {
+                    buffer.append(x, y);
+                    if (buffer.count == 1) dirty.add(buffer);
+                    if (buffer.count >= batchSize && !buffer.flushQueued) {
+                        buffer.flushQueued = true;
+                        submitFlush(buffer);
+                    }
+                    return;
+                }
+            } finally {
+                buffer.lock.unlock();
+            }
+            flush(buffer);
+        }
+    }
+
+    // Buffered points go first, under the same flush lock, so they keep their place before the batch.
+    @Override
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        Buffer buffer = buffers.get(new Key(author, name));
+        if (buffer == null) {
+            delegate.addPoints(author, name, xy);
+            return;
+        }
+        buffer.flushLock.lock();
+        try {
+            flush(buffer);
+            delegate.addPoints(author, name, xy);
+        } finally {
+            buffer.flushLock.unlock();
+        }
+    }
+
+    @Override
+    public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+        flush(author, name);
+        return delegate.getBlueprint(author, name);
+    }
+
+    @Override
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        flush(author, name);
+        return delegate.getPoints(author, name, since, limit);
+    }
+
+    @Override
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        flush(author, name);
+        return delegate.getBlueprintSummary(author, name);
+    }
+
+    @Override
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        flush(author, name);
+        return delegate.getBlueprintVersion(author, name);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
+        flushAuthor(author);
+        return delegate.getBlueprintsByAuthor(author);
+    }
+
+    @Override
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        flushAuthor(author);
+        return delegate.getSummariesByAuthor(author);
+    }
+
+    @Override
+    public long getAuthorVersion(String author) {
+        flushAuthor(author);
+        return delegate.getAuthorVersion(author);
+    }
+
+    @Override
+    public Set<Blueprint> getAllBlueprints() {
+        flushAll();
+        return delegate.getAllBlueprints();
+    }
+
+    @Override
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        flushAll();
+        return delegate.getBlueprintsPage(afterAuthor, afterName, limit);
+    }
+
+    @Override
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        flushAll();
+        delegate.forEachBlueprint(action);
+    }
+
+    @Override
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        flushAll();
+        return delegate.getBlueprintsInBox(box);
+    }
+
+    @Override
+    public long getCatalogVersion() {
+        flushAll();
+        return delegate.getCatalogVersion();
+    }
+
+    /** Stops the background flusher and writes every buffered point. */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(30, TimeUnit.SECONDS)) log.warn("Write-behind flusher did not stop in 30s");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushAllQuietly();
+        long lost = pendingPoints();
+        if (lost > 0) log.error("Write-behind closed with {} points that could not be written", lost);
+    }
+
+    // Appends to a missing blueprint fail when they are made, not when their buffer is flushed.
+    // No blueprint is ever deleted, so the check is needed only once per blueprint.
+    private Buffer buffer(String author, String name) throws BlueprintNotFoundException {
+        Key key = new Key(author, name);
+        Buffer buffer = buffers.get(key);
+        if (buffer != null) return buffer;
+        delegate.getBlueprintVersion(author, name);
+        return buffers.computeIfAbsent(key, Buffer::new);
+    }
+
+    private void flush(String author, String name) throws BlueprintNotFoundException {
+        Buffer buffer = buffers.get(new Key(author, name));
+        if (buffer != null) flush(buffer);
+    }
+
+    // Reads that span blueprints cannot report a failed flush as "not found"; they fail with
+    // the store's error instead, as they would without write-behind.
+    private void flushAuthor(String author) {
+        for (Buffer buffer : dirty) {
+            if (buffer.key.author().equals(author)) flushOrFail(buffer);
+        }
+    }
+
+    private void flushAll() {
+        for (Buffer buffer : dirty) flushOrFail(buffer);
+    }
+
+    private void flushOrFail(Buffer buffer) {
+        try {
+            flush(buffer);
+        } catch (BlueprintNotFoundException e) {
+            throw new IllegalStateException("Buffered blueprint disappeared: " + buffer.key, e);
+        }
+    }
+
+    private void flushAllQuietly() {
+        for (Buffer buffer : dirty) flushQuietly(buffer);
+    }
+
+    private void flushQuietly(Buffer buffer) {
+        try {
+            flush(buffer);
+        } catch (Exception e) {
+            log.warn("Write-behind flush of {}/{} failed; its points stay buffered for the next attempt",
+                    buffer.key.author(), buffer.key.name(), e);
+        }
+    }
+
+    private void submitFlush(Buffer buffer) {
+        try {
+            flusher.execute(() -> flushQuietly(buffer));
+        } catch (RejectedExecutionException e) {
+            // Closing: close() flushes it.
+        }
+    }
+
+    /**
+     * Writes the points buffered when the flush starts; appends arriving meanwhile wait for the
+     * next one. The points leave the buffer only after the store accepted them.
+     */
+    private void flush(Buffer buffer) throws BlueprintNotFoundException {
+        buffer.flushLock.lock();
+        try {
+            int[] batch;
+            buffer.lock.lock();
+            try {
+                buffer.flushQueued = false;
+                if (buffer.count == 0) return;
+                batch = Arrays.copyOf(buffer.xy, buffer.count * 2);
+            } finally {
+                buffer.lock.unlock();
+            }
+            delegate.addPoints(buffer.key.author(), buffer.key.name(), batch);
+            flushes.incrementAndGet();
+            buffer.lock.lock();
+            try {
+                buffer.drop(batch.length / 2);
+                if (buffer.count == 0) dirty.remove(buffer);
+            } finally {
+                buffer.lock.unlock();
+            }
+        } finally {
+            buffer.flushLock.unlock();
+        }
+    }
+
+    // xy, count and flushQueued are guarded by lock, held only around array operations.
+    // flushLock serializes flushes and is always taken before lock, never while holding it.
+    // Locks rather than monitors, so virtual threads are never pinned (profile "virtual").
+    private static final class Buffer {
+        final Key key;
+        final ReentrantLock lock = new ReentrantLock();
+        final ReentrantLock flushLock = new ReentrantLock();
+        int[] xy = new int[INITIAL_POINTS * 2];
+        int count;
+        boolean flushQueued;
+
+        Buffer(Key key) {
+            this.key = key;
+        }
+
+        void append(int x, int y) {
+            if (count * 2 == xy.length) xy = Arrays.copyOf(xy, xy.length * 2);
+            xy[count * 2] = x;
+            xy[count * 2 + 1] = y;
+            count++;
+        }
+
+        // An idle buffer goes back to its initial size, so blueprints written once in a burst
+        // do not keep a large array each.
+        void drop(int points) {
+            count -= points;
+            if (count == 0 && xy.length > INITIAL_POINTS * 2) {
+                xy = new int[INITIAL_POINTS * 2];
+            } else {
+                System.arraycopy(xy, points * 2, xy, 0, count * 2);
+            }
+        }
+    }
+}
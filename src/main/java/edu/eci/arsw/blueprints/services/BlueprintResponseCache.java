@@ -0,0 +1,156 @@
+package edu.eci.arsw.blueprints.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import edu.eci.arsw.blueprints.cache.WeightedLruCache;
+import edu.eci.arsw.blueprints.codec.BlueprintBinaryMessageConverter;
+import edu.eci.arsw.blueprints.codec.BlueprintCodec;
+import edu.eci.arsw.blueprints.dto.ApiResponse;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Single-blueprint responses already filtered and serialized, ready to be copied to the wire.
+ * Entries are keyed by the blueprint version, so writes never invalidate anything: the next
+ * read asks for a new key and the bytes of older versions age out of the LRU, which is
+ * bounded by the total size of the cached bodies.
+ */
+@Service
+public class BlueprintResponseCache {
+
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON),
+        BINARY(BlueprintBinaryMessageConverter.BLUEPRINT);
+
+        private final MediaType type;
+
+        Format(MediaType type) { this.type = type; }
+
+        /**
+         * Format an {@code Accept} header asks for, resolved like the message converters do
+         * (quality first, then specificity, JSON on ties), or {@code null} if it accepts neither.
+         */
+        public static Format negotiate(String accept) {
+            if (accept == null || accept.isBlank()) return JSON;
+            List<MediaType> types;
+            try {
+                types = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            } catch (InvalidMediaTypeException e) {
+                return null;
+            }
+            types.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                    .thenComparing(MediaType::isWildcardType)
+                    .thenComparing(MediaType::isWildcardSubtype));
+            for (MediaType t : types) {
+                if (t.getQualityValue() == 0) continue;
+                if (t.includes(JSON.type)) return JSON;
+                if (t.includes(BINARY.type)) return BINARY;
+            }
+            return null;
+        }
+    }
+
+    public record Rendered(byte[] body, MediaType contentType, boolean gzipped) { }
+
+    private record Key(String author, String name, List<String> filters, long version, Format format, boolean gzip) { }
+
+    private final BlueprintsServices services;
+    private final ObjectWriter json;
+    private final int gzipMinBytes;
+    private final WeightedLruCache<Key, Rendered> cache;
+
+    /**
+     * @param maxBytes     total size of the cached bodies
+     * @param gzipMinBytes smaller bodies are stored uncompressed even if the client accepts gzip
+     */
+    public BlueprintResponseCache(BlueprintsServices services, ObjectMapper mapper, MeterRegistry meters,
+                                  @Value("${blueprints.response-cache.max-bytes:67108864}") long maxBytes,
+                                  @Value("${blueprints.response-cache.ttl:5m}") Duration ttl,
+                                  @Value("${blueprints.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.services = services;
+        this.json = mapper.writer();
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = new WeightedLruCache<>(maxBytes, ttl, r -> r.body().length);
+        FunctionCounter.builder("blueprints.response.cache", cache, c -> c.stats().hits())
+                .tag("result", "hit").register(meters);
+        FunctionCounter.builder("blueprints.response.cache", cache, c -> c.stats().misses())
+                .tag("result", "miss").register(meters);
+        FunctionCounter.builder("blueprints.response.cache.evictions", cache, c -> c.stats().evictions())
+                .register(meters);
+        Gauge.builder("blueprints.response.cache.size", cache, c -> c.stats().weight())
+                .baseUnit("bytes").register(meters);
+    }
+
+    public WeightedLruCache.Stats stats() { return cache.stats(); }
+
+    /**
+     * Response body for the blueprint filtered by {@code filterNames} (the default filter if
+     * empty), as of {@code version}. A miss stores the body under the version of the blueprint
+     * it actually loaded, not under {@code version}: the load can race a write either way (a
+     * read-through cache may still hold the previous version while the version query already
+     * sees the new one), and keying by the requested version could pin stale bytes under the
+     * current key.
+     *
+     * @throws IllegalArgumentException if a filter name is unknown
+     */
+    public Rendered render(String author, String name, List<String> filterNames, long version, Format format,
+                           boolean gzip) throws BlueprintNotFoundException {
+        List<String> filters = filterNames == null ? List.of() : List.copyOf(filterNames);
+        Rendered rendered = cache.get(new Key(author, name, filters, version, format, gzip));
+        if (rendered != null) return rendered;
+        long generation = cache.generation();
+        Blueprint bp = services.getBlueprint(author, name, filterNames);
+        byte[] body = format == Format.JSON ? toJson(bp) : BlueprintCodec.encode(bp);
+        boolean gzipped = gzip && body.length >= gzipMinBytes;
+        rendered = new Rendered(gzipped ? gzip(body) : body, format.type, gzipped);
+        cache.put(new Key(author, name, filters, bp.version(), format, gzip), rendered, generation);
+        return rendered;
+    }
+
+    /** True unless the {@code Accept-Encoding} header leaves gzip out or gives it {@code q=0}. */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String token = parts[0].trim();
+            if (!token.equalsIgnoreCase("gzip") && !token.equals("*")) continue;
+            return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    private byte[] toJson(Blueprint bp) {
+        try {
+            return json.writeValueAsBytes(new ApiResponse<>(200, "execute ok", bp));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out, 8192)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -1,42 +1,178 @@
 package edu.eci.arsw.blueprints.services;
 
 import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.metrics.RequestProfile;
+import edu.eci.arsw.blueprints.metrics.RequestProfile.Layer;
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.PointRange;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class BlueprintsServices {
 
     private final BlueprintPersistence persistence;
     private final BlueprintsFilter filter;
+    private final FilterRegistry filters;
+    private final long parallelMinPoints;
+    private final MeterRegistry meters;
+    private final Map<String, Timer> filterTimers = new ConcurrentHashMap<>();
 
-    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter) {
+    /**
+     * @param parallelMinPoints total points a collection result must hold before its blueprints
+     *                          are filtered in parallel on the common fork/join pool
+     * @param meters            registry for the per-filter {@code blueprints.filter} timers
+     */
+    public BlueprintsServices(BlueprintPersistence persistence, BlueprintsFilter filter, FilterRegistry filters,
+                              @Value("${blueprints.filters.parallel-min-points:100000}") long parallelMinPoints,
+                              MeterRegistry meters) {
         this.persistence = persistence;
         this.filter = filter;
+        this.filters = filters;
+        this.parallelMinPoints = parallelMinPoints;
+        this.meters = meters;
     }
 
     public void addNewBlueprint(Blueprint bp) throws BlueprintPersistenceException {
         persistence.saveBlueprint(bp);
     }
 
+    /** Index-aligned with {@code bps}: {@code true} where the blueprint was created, {@code false} for duplicates. */
+    public List<Boolean> addNewBlueprints(List<Blueprint> bps) {
+        return persistence.saveBlueprints(bps);
+    }
+
     public Set<Blueprint> getAllBlueprints() {
-        return persistence.getAllBlueprints();
+        return new LinkedHashSet<>(filterAll(persistence.getAllBlueprints()));
+    }
+
+    public List<Blueprint> getBlueprintsPage(String afterAuthor, String afterName, int limit) {
+        return filterAll(persistence.getBlueprintsPage(afterAuthor, afterName, limit));
+    }
+
+    public void forEachBlueprint(Consumer<Blueprint> action) {
+        persistence.forEachBlueprint(bp -> action.accept(applyOne(filter, bp)));
     }
 
     public Set<Blueprint> getBlueprintsByAuthor(String author) throws BlueprintNotFoundException {
-        return persistence.getBlueprintsByAuthor(author);
+        return new LinkedHashSet<>(filterAll(persistence.getBlueprintsByAuthor(author)));
+    }
+
+    /** Blueprints with a stored point inside {@code box}, then filtered like any collection. */
+    public Set<Blueprint> getBlueprintsInBox(BoundingBox box) {
+        return new LinkedHashSet<>(filterAll(persistence.getBlueprintsInBox(box)));
     }
 
     public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
-        return filter.apply(persistence.getBlueprint(author, name));
+        return applyOne(filter, persistence.getBlueprint(author, name));
+    }
+
+    /**
+     * Same as {@link #getBlueprint(String, String)} but filtered by the named chain instead of the
+     * default filter; an empty list keeps the default.
+     *
+     * @throws IllegalArgumentException if a filter name is unknown
+     */
+    public Blueprint getBlueprint(String author, String name, List<String> filterNames) throws BlueprintNotFoundException {
+        if (filterNames == null || filterNames.isEmpty()) return getBlueprint(author, name);
+        BlueprintsFilter chain = filters.chain(filterNames);
+        return applyOne(chain, persistence.getBlueprint(author, name));
+    }
+
+    /**
+     * Resolves the named chain without reading anything, so callers can reject a bad list before
+     * answering from a version alone.
+     *
+     * @throws IllegalArgumentException if a filter name is unknown or the chain is too long
+     */
+    public void checkFilters(List<String> filterNames) {
+        if (filterNames != null && !filterNames.isEmpty()) filters.chain(filterNames);
     }
 
     public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
         persistence.addPoint(author, name, x, y);
     }
+
+    /** Appends consecutive x, y pairs in a single write: one version bump, all points or none. */
+    public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+        persistence.addPoints(author, name, xy);
+    }
+
+    /** Aggregates of the stored points; filters do not apply, since no point is read. */
+    public BlueprintSummary getBlueprintSummary(String author, String name) throws BlueprintNotFoundException {
+        return persistence.getBlueprintSummary(author, name);
+    }
+
+    public List<BlueprintSummary> getSummariesByAuthor(String author) throws BlueprintNotFoundException {
+        return persistence.getSummariesByAuthor(author);
+    }
+
+    /** Stored points {@code [since, since + limit)}; filters do not apply, so ranges line up across calls. */
+    public PointRange getPoints(String author, String name, int since, int limit) throws BlueprintNotFoundException {
+        return persistence.getPoints(author, name, since, limit);
+    }
+
+    public long getBlueprintVersion(String author, String name) throws BlueprintNotFoundException {
+        return persistence.getBlueprintVersion(author, name);
+    }
+
+    /** {@code 0} if the author has no blueprints. */
+    public long getAuthorVersion(String author) {
+        return persistence.getAuthorVersion(author);
+    }
+
+    public long getCatalogVersion() {
+        return persistence.getCatalogVersion();
+    }
+
+    // Small results stay on the calling thread: forking costs more than filtering a few points.
+    // Both modes keep the encounter order of bps. Workers can't see the request profile, so the
+    // filter layer gets the wall time of the whole pass.
+    private List<Blueprint> filterAll(Collection<Blueprint> bps) {
+        long start = System.nanoTime();
+        long points = 0;
+        for (Blueprint bp : bps) points += bp.pointCount();
+        Stream<Blueprint> stream = points >= parallelMinPoints ? bps.parallelStream() : bps.stream();
+        List<Blueprint> out = stream.map(bp -> apply(filter, bp)).toList();
+        RequestProfile.add(Layer.FILTER, System.nanoTime() - start);
+        return out;
+    }
+
+    private Blueprint applyOne(BlueprintsFilter f, Blueprint bp) {
+        long start = System.nanoTime();
+        Blueprint out = apply(f, bp);
+        RequestProfile.add(Layer.FILTER, System.nanoTime() - start);
+        return out;
+    }
+
+    // The output keeps the version of its source. It is read before the points, so a live
+    // in-memory blueprint can only have newer points than its version says, never older.
+    private Blueprint apply(BlueprintsFilter f, Blueprint bp) {
+        long start = System.nanoTime();
+        long version = bp.version();
+        Blueprint out = f.apply(bp);
+        if (out != bp) out.setVersion(version);
+        filterTimers.computeIfAbsent(f.name(), name -> Timer.builder("blueprints.filter")
+                .tag("filter", name)
+                .register(meters)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return out;
+    }
 }
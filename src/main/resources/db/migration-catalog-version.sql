@@ -0,0 +1,14 @@
+-- Creates the stored catalog version (the ETag of GET /blueprints and of every page) on an
+-- existing database. Stripe 0 starts above the old count + sum(version) aggregate, so a
+-- client holding an ETag from before the migration does not get a false 304.
+-- The application creates any missing stripe on startup; run with writers stopped.
+
+CREATE TABLE IF NOT EXISTS catalog_version (
+    stripe INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO catalog_version (stripe, version)
+SELECT s, CASE WHEN s = 0 THEN (SELECT count(*) + coalesce(sum(version), 0) + 1 FROM blueprint) ELSE 0 END
+FROM generate_series(0, 15) s
+ON CONFLICT (stripe) DO NOTHING;
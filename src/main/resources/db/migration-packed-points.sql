@@ -0,0 +1,20 @@
+-- Moves the row-per-point layout to the packed layout used by the "packed" profile.
+-- Each point becomes 8 bytes of packed_points: x then y, as big-endian int4 (int4send).
+-- Run in one transaction with writers stopped, after migration-point-ordinal.sql.
+
+ALTER TABLE blueprint ADD COLUMN IF NOT EXISTS packed_points bytea;
+
+UPDATE blueprint b
+SET packed_points = COALESCE(
+        (SELECT string_agg(int4send(p.x) || int4send(p.y), ''::bytea ORDER BY p.ordinal)
+         FROM point p
+         WHERE p.blueprint_id = b.id),
+        ''::bytea);
+
+-- Sanity check: both counts must match for every blueprint.
+-- SELECT b.id, octet_length(b.packed_points) / 8 AS packed, count(p.id) AS rows
+-- FROM blueprint b LEFT JOIN point p ON p.blueprint_id = b.id
+-- GROUP BY b.id HAVING octet_length(b.packed_points) / 8 <> count(p.id);
+
+-- Once the packed profile is in production, the point rows can go:
+-- TRUNCATE point;
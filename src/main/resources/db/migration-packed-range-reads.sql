@@ -0,0 +1,8 @@
+-- Optional, for the "packed" profile: stores packed_points out of line and uncompressed, so
+-- GET /{author}/{bpname}/points?since=N&limit=M (substring of packed_points) reads only the
+-- TOAST chunks holding the range instead of decompressing the whole value. Costs disk space.
+-- Applies to values written afterwards; the UPDATE rewrites the existing ones.
+
+ALTER TABLE blueprint ALTER COLUMN packed_points SET STORAGE EXTERNAL;
+
+UPDATE blueprint SET packed_points = packed_points || ''::bytea WHERE packed_points IS NOT NULL;
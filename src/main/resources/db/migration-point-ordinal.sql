@@ -0,0 +1,16 @@
+-- Adds the per-blueprint point ordinal (0-based position) to an existing point table.
+-- Ids come from a pooled sequence and are not guaranteed to follow insertion order across
+-- instances; the backfill uses id order, which is the best order the old schema recorded.
+-- Run in one transaction with writers stopped, before migration-summaries.sql: new appends
+-- take their ordinal from blueprint.point_count, which that script fills.
+
+ALTER TABLE point ADD COLUMN IF NOT EXISTS ordinal INTEGER;
+
+UPDATE point p
+SET ordinal = o.ordinal
+FROM (SELECT id, row_number() OVER (PARTITION BY blueprint_id ORDER BY id) - 1 AS ordinal
+      FROM point) o
+WHERE o.id = p.id;
+
+ALTER TABLE point ALTER COLUMN ordinal SET NOT NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS point_blueprint_ordinal ON point (blueprint_id, ordinal);
@@ -0,0 +1,30 @@
+-- Builds the spatial grid index (blueprint_cell) for an existing database.
+-- A blueprint gets one row per 64x64 cell holding at least one of its points; the cell key is
+-- (floor(x / 64) << 32) | (floor(y / 64) & 0xFFFFFFFF), as in SpatialGrid.
+
+CREATE TABLE IF NOT EXISTS blueprint_cell (
+    blueprint_id INTEGER NOT NULL REFERENCES blueprint(id) ON DELETE CASCADE,
+    cell BIGINT NOT NULL,
+    PRIMARY KEY (blueprint_id, cell)
+);
+CREATE INDEX IF NOT EXISTS blueprint_cell_cell ON blueprint_cell (cell);
+
+-- Row-per-point layout.
+INSERT INTO blueprint_cell (blueprint_id, cell)
+SELECT DISTINCT p.blueprint_id,
+       (floor(p.x / 64.0)::bigint << 32) | (floor(p.y / 64.0)::bigint & 4294967295)
+FROM point p
+ON CONFLICT DO NOTHING;
+
+-- Packed layout ("packed" profile): decode each 8-byte (x, y) pair of packed_points.
+INSERT INTO blueprint_cell (blueprint_id, cell)
+SELECT DISTINCT b.id,
+       (floor(xy.x / 64.0)::bigint << 32) | (floor(xy.y / 64.0)::bigint & 4294967295)
+FROM blueprint b
+CROSS JOIN LATERAL (
+    SELECT ('x' || encode(substring(b.packed_points FROM i * 8 + 1 FOR 4), 'hex'))::bit(32)::int AS x,
+           ('x' || encode(substring(b.packed_points FROM i * 8 + 5 FOR 4), 'hex'))::bit(32)::int AS y
+    FROM generate_series(0, octet_length(b.packed_points) / 8 - 1) AS i
+) xy
+WHERE b.packed_points IS NOT NULL
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,54 @@
+-- Adds the running summary columns (point count, bounds, first/last point, polyline length)
+-- to an existing database and fills them from the stored points of either layout.
+-- Run in one transaction with writers stopped; afterwards every append keeps them current.
+-- If the point rows were kept after migration-packed-points.sql, drop the branch of the
+-- layout not in use, or those blueprints are counted twice.
+
+ALTER TABLE blueprint
+    ADD COLUMN IF NOT EXISTS point_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS min_x INTEGER,
+    ADD COLUMN IF NOT EXISTS min_y INTEGER,
+    ADD COLUMN IF NOT EXISTS max_x INTEGER,
+    ADD COLUMN IF NOT EXISTS max_y INTEGER,
+    ADD COLUMN IF NOT EXISTS first_x INTEGER,
+    ADD COLUMN IF NOT EXISTS first_y INTEGER,
+    ADD COLUMN IF NOT EXISTS last_x INTEGER,
+    ADD COLUMN IF NOT EXISTS last_y INTEGER,
+    ADD COLUMN IF NOT EXISTS path_length DOUBLE PRECISION NOT NULL DEFAULT 0;
+
+WITH points AS (
+    -- Row-per-point layout (ordinals from migration-point-ordinal.sql).
+    SELECT p.blueprint_id, p.ordinal AS ord, p.x, p.y
+    FROM point p
+    UNION ALL
+    -- Packed layout ("packed" profile): decode each 8-byte (x, y) pair of packed_points.
+    SELECT b.id, i,
+           ('x' || encode(substring(b.packed_points FROM i * 8 + 1 FOR 4), 'hex'))::bit(32)::int,
+           ('x' || encode(substring(b.packed_points FROM i * 8 + 5 FOR 4), 'hex'))::bit(32)::int
+    FROM blueprint b
+    CROSS JOIN LATERAL generate_series(0, octet_length(b.packed_points) / 8 - 1) AS i
+    WHERE b.packed_points IS NOT NULL
+),
+segments AS (
+    SELECT blueprint_id, ord, x, y,
+           sqrt(power(x::float8 - lag(x) OVER w, 2) + power(y::float8 - lag(y) OVER w, 2)) AS segment,
+           first_value(x) OVER w AS fx, first_value(y) OVER w AS fy,
+           row_number() OVER (PARTITION BY blueprint_id ORDER BY ord DESC) AS from_end
+    FROM points
+    WINDOW w AS (PARTITION BY blueprint_id ORDER BY ord)
+),
+summaries AS (
+    SELECT blueprint_id, count(*) AS n,
+           min(x) AS min_x, min(y) AS min_y, max(x) AS max_x, max(y) AS max_y,
+           min(fx) AS first_x, min(fy) AS first_y,
+           min(x) FILTER (WHERE from_end = 1) AS last_x, min(y) FILTER (WHERE from_end = 1) AS last_y,
+           coalesce(sum(segment), 0) AS path_length
+    FROM segments
+    GROUP BY blueprint_id
+)
+UPDATE blueprint b
+SET point_count = s.n, min_x = s.min_x, min_y = s.min_y, max_x = s.max_x, max_y = s.max_y,
+    first_x = s.first_x, first_y = s.first_y, last_x = s.last_x, last_y = s.last_y,
+    path_length = s.path_length
+FROM summaries s
+WHERE s.blueprint_id = b.id;
@@ -0,0 +1,77 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.codec.BlueprintCodec;
+import edu.eci.arsw.blueprints.codec.BlueprintFrameReader;
+import edu.eci.arsw.blueprints.codec.BlueprintFrameWriter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintCodecTest {
+
+    @Test
+    void testRoundTripKeepsExtremeCoordinatesAndUnicodeNames() throws Exception {
+        Blueprint bp = new Blueprint("josé", "plano ☂", List.of(
+                new Point(0, 0), new Point(Integer.MAX_VALUE, Integer.MIN_VALUE),
+                new Point(Integer.MIN_VALUE, Integer.MAX_VALUE), new Point(-1, 1)));
+
+        Blueprint decoded = BlueprintCodec.decode(BlueprintCodec.encode(bp));
+
+        assertEquals("josé", decoded.getAuthor());
+        assertEquals("plano ☂", decoded.getName());
+        assertEquals(bp.getPoints(), decoded.getPoints());
+    }
+
+    @Test
+    void testFramesAreReadBackOneByOne() throws Exception {
+        Random random = new Random(3);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Blueprint[] written = new Blueprint[50];
+        try (BlueprintFrameWriter writer = new BlueprintFrameWriter(bytes)) {
+            for (int b = 0; b < written.length; b++) {
+                written[b] = new Blueprint("stream", "bp" + b, 0);
+                for (int i = random.nextInt(3_000); i > 0; i--) written[b].addPoint(random.nextInt(), random.nextInt());
+                writer.write(written[b]);
+            }
+        }
+
+        BlueprintFrameReader reader = new BlueprintFrameReader(new ByteArrayInputStream(bytes.toByteArray()));
+        for (Blueprint expected : written) {
+            Blueprint bp = reader.read();
+            assertEquals(expected.getName(), bp.getName());
+            assertEquals(expected.getPoints(), bp.getPoints());
+        }
+        assertNull(reader.read());
+    }
+
+    @Test
+    void testTruncatedFrameIsRejected() {
+        Blueprint bp = new Blueprint("cut", "short", List.of(new Point(1000, 1000), new Point(2000, 2000)));
+        byte[] bytes = BlueprintCodec.encode(bp);
+
+        assertThrows(IOException.class, () -> BlueprintCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    void testNearbyPointsTakeAboutTwoBytes() {
+        Random random = new Random(11);
+        Blueprint bp = new Blueprint("walk", "drawing", 0);
+        int x = 500, y = 500;
+        for (int i = 0; i < 10_000; i++) {
+            x += random.nextInt(7) - 3;
+            y += random.nextInt(7) - 3;
+            bp.addPoint(x, y);
+        }
+
+        assertTrue(BlueprintCodec.encode(bp).length < 10_000 * 2 + 32);
+    }
+}
@@ -0,0 +1,141 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintConcurrencyTest {
+
+    private static final int APPENDS_PER_THREAD = 200_000;
+
+    @Test
+    void testConcurrentAppendsKeepEveryPointInWriterOrder() throws Exception {
+        int writers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        Blueprint bp = new Blueprint("stress", "hot", List.of());
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            // Reader: snapshots must stay readable and never shrink while writers append.
+            Future<?> reader = pool.submit(() -> {
+                int last = 0;
+                while (!done.get()) {
+                    List<Point> snapshot = bp.getPoints();
+                    assertTrue(snapshot.size() >= last);
+                    for (Point p : snapshot) assertNotNull(p);
+                    last = snapshot.size();
+                }
+                return null;
+            });
+            run(pool, writers, bp);
+            done.set(true);
+            reader.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(writers * APPENDS_PER_THREAD, bp.pointCount());
+        int[] next = new int[writers];
+        for (int i = 0; i < bp.pointCount(); i++) {
+            int writer = bp.xAt(i);
+            assertEquals(next[writer]++, bp.yAt(i), "points of writer " + writer + " out of order");
+        }
+    }
+
+    @Test
+    void testConcurrentBatchesAreSeenWholeAndInWriterOrder() throws Exception {
+        int writers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        int batch = 16, batches = 5_000;
+        Blueprint bp = new Blueprint("stress", "batched", List.of());
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            Future<?> reader = pool.submit(() -> {
+                while (!done.get()) assertEquals(0, bp.pointCount() % batch, "reader saw part of a batch");
+                return null;
+            });
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int id = w;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int[] xy = new int[batch * 2];
+                    for (int b = 0; b < batches; b++) {
+                        for (int j = 0; j < batch; j++) {
+                            xy[j * 2] = id;
+                            xy[j * 2 + 1] = b * batch + j;
+                        }
+                        bp.addPoints(xy);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) f.get();
+            done.set(true);
+            reader.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(writers * batches * batch, bp.pointCount());
+        int[] next = new int[writers];
+        for (int i = 0; i < bp.pointCount(); i++) {
+            int writer = bp.xAt(i);
+            assertEquals(bp.xAt(i - i % batch), writer, "batch interleaved at " + i);
+            assertEquals(next[writer]++, bp.yAt(i), "points of writer " + writer + " out of order");
+        }
+    }
+
+    @Test
+    void testBuiltBlueprintTakesConcurrentAppendsAfterItsPoints() throws Exception {
+        Blueprint.Builder builder = Blueprint.builder("stress", "built", 2);
+        for (int i = 0; i < 1_000; i++) builder.add(-1, i);
+        Blueprint bp = builder.build();
+        assertEquals(1_000, bp.pointCount());
+        assertEquals(new Point(-1, 999), bp.getPoints().get(999));
+        assertEquals(0, Blueprint.builder("stress", "empty", 100).build().pointCount());
+
+        int writers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            run(pool, writers, bp);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1_000 + writers * APPENDS_PER_THREAD, bp.pointCount());
+        for (int i = 0; i < 1_000; i++) assertEquals(new Point(-1, i), bp.getPoints().get(i));
+        int[] next = new int[writers];
+        for (int i = 1_000; i < bp.pointCount(); i++) {
+            int writer = bp.xAt(i);
+            assertEquals(next[writer]++, bp.yAt(i), "points of writer " + writer + " out of order");
+        }
+    }
+
+    // Writer w appends (w, 0), (w, 1), ... so order can be checked per writer.
+    private static void run(ExecutorService pool, int writers, Blueprint bp) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < APPENDS_PER_THREAD; i++) bp.addPoint(id, i);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+    }
+}
@@ -0,0 +1,190 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.events.BlueprintEvent;
+import edu.eci.arsw.blueprints.events.BlueprintEventHub;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.EventPublishingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintEventHubTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final List<BlueprintEventHub> hubs = new ArrayList<>();
+
+    private BlueprintEventHub hub(int bufferPoints, Duration heartbeat, int maxSubscribers) {
+        BlueprintEventHub hub = new BlueprintEventHub(bufferPoints, Duration.ofMillis(10), heartbeat, maxSubscribers,
+                new SimpleMeterRegistry());
+        hubs.add(hub);
+        return hub;
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (BlueprintEventHub hub : hubs) hub.close();
+    }
+
+    // Records every batch; with a gate, the first send waits until the gate opens.
+    private static final class RecordingSink implements BlueprintEventHub.Sink {
+        final BlockingQueue<List<BlueprintEvent>> batches = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate;
+        final AtomicInteger heartbeats = new AtomicInteger();
+        final CountDownLatch closed = new CountDownLatch(1);
+
+        RecordingSink(boolean gated) {
+            this.gate = new CountDownLatch(gated ? 1 : 0);
+        }
+
+        @Override
+        public void send(List<BlueprintEvent> events) {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            batches.add(events);
+        }
+
+        @Override
+        public void heartbeat() {
+            heartbeats.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        // The next n events, across as many batches as they came in.
+        List<BlueprintEvent> take(int n) throws InterruptedException {
+            List<BlueprintEvent> events = new ArrayList<>();
+            while (events.size() < n) {
+                List<BlueprintEvent> batch = batches.poll(5, TimeUnit.SECONDS);
+                assertNotNull(batch, "timed out after " + events);
+                events.addAll(batch);
+            }
+            assertEquals(n, events.size(), events.toString());
+            return events;
+        }
+    }
+
+    @Test
+    void testSubscribersGetTheChangesOfTheirTopicInOrder() throws Exception {
+        BlueprintEventHub hub = hub(1000, NEVER, 100);
+        InMemoryBlueprintPersistence store = new InMemoryBlueprintPersistence();
+        EventPublishingBlueprintPersistence persistence = new EventPublishingBlueprintPersistence(store, hub);
+        persistence.saveBlueprint(new Blueprint("alice", "a", List.of()));
+        persistence.saveBlueprint(new Blueprint("bob", "x", List.of()));
+        RecordingSink blueprint = new RecordingSink(false), author = new RecordingSink(false), other = new RecordingSink(false);
+        hub.subscribe("alice", "a", blueprint);
+        hub.subscribe("alice", null, author);
+        hub.subscribe("bob", null, other);
+
+        persistence.addPoint("alice", "a", 1, 1);
+        persistence.saveBlueprint(new Blueprint("alice", "b", List.of(new Point(0, 0))));
+        persistence.addPoints("alice", "b", new int[] {2, 2, 3, 3});
+        persistence.addPoint("bob", "x", 9, 9);
+
+        assertEquals(List.of(BlueprintEvent.points("alice", "a", List.of(new Point(1, 1)))), blueprint.take(1));
+        assertEquals(List.of(
+                BlueprintEvent.points("alice", "a", List.of(new Point(1, 1))),
+                BlueprintEvent.created("alice", "b", 1),
+                BlueprintEvent.points("alice", "b", List.of(new Point(2, 2), new Point(3, 3)))), author.take(3));
+        assertEquals(List.of(BlueprintEvent.points("bob", "x", List.of(new Point(9, 9)))), other.take(1));
+        assertTrue(blueprint.batches.isEmpty());
+    }
+
+    @Test
+    void testAppendsQueuedDuringASendGoOutAsOneEvent() throws Exception {
+        BlueprintEventHub hub = hub(1000, NEVER, 100);
+        RecordingSink sink = new RecordingSink(true);
+        hub.subscribe("batch", "bp", sink);
+
+        hub.pointAdded("batch", "bp", 0, 0);
+        assertTrue(sink.entered.await(5, TimeUnit.SECONDS));
+        List<Point> queued = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            hub.pointAdded("batch", "bp", i, -i);
+            queued.add(new Point(i, -i));
+        }
+        sink.gate.countDown();
+
+        assertEquals(List.of(BlueprintEvent.points("batch", "bp", List.of(new Point(0, 0)))), sink.take(1));
+        assertEquals(List.of(BlueprintEvent.points("batch", "bp", queued)), sink.take(1));
+    }
+
+    @Test
+    void testSlowSubscriberIsDroppedWithoutHoldingBackWritersOrOthers() throws Exception {
+        BlueprintEventHub hub = hub(10, NEVER, 100);
+        RecordingSink slow = new RecordingSink(true), fast = new RecordingSink(false);
+        hub.subscribe("slow", "bp", slow);
+        hub.subscribe("slow", "bp", fast);
+
+        hub.pointAdded("slow", "bp", 0, 0);
+        assertTrue(slow.entered.await(5, TimeUnit.SECONDS));
+        assertEquals(1, fast.take(1).get(0).points().size());
+        // Chunks of 8 that the fast subscriber keeps up with; the stuck one overflows on the second.
+        for (int chunk = 0; chunk < 5; chunk++) {
+            hub.pointsAdded("slow", "bp", new int[16]);
+            assertEquals(8, fast.take(1).get(0).points().size());
+            if (chunk == 1) assertEquals(1, hub.subscriberCount());
+        }
+
+        slow.gate.countDown();
+        assertEquals(List.of(BlueprintEvent.points("slow", "bp", List.of(new Point(0, 0))), BlueprintEvent.overflow()),
+                slow.take(2));
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testRejectedWritesPublishNothing() throws Exception {
+        BlueprintEventHub hub = hub(1000, NEVER, 100);
+        EventPublishingBlueprintPersistence persistence =
+                new EventPublishingBlueprintPersistence(new InMemoryBlueprintPersistence(), hub);
+        RecordingSink sink = new RecordingSink(false);
+        hub.subscribe("john", null, sink);
+
+        assertThrows(BlueprintPersistenceException.class,
+                () -> persistence.saveBlueprint(new Blueprint("john", "house", List.of())));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("john", "missing", 1, 1));
+        assertEquals(List.of(false), persistence.saveBlueprints(List.of(new Blueprint("john", "house", List.of()))));
+        persistence.addPoint("john", "house", 7, 7);
+
+        assertEquals(List.of(BlueprintEvent.points("john", "house", List.of(new Point(7, 7)))), sink.take(1));
+    }
+
+    @Test
+    void testIdleSubscribersGetHeartbeatsUntilTheHubCloses() throws Exception {
+        BlueprintEventHub hub = hub(1000, Duration.ofMillis(20), 1);
+        RecordingSink sink = new RecordingSink(false);
+        hub.subscribe("idle", null, sink);
+        assertThrows(IllegalStateException.class, () -> hub.subscribe("idle", null, new RecordingSink(false)));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.heartbeats.get() < 2 && System.nanoTime() < deadline) Thread.sleep(10);
+        assertTrue(sink.heartbeats.get() >= 2);
+
+        hub.close();
+        assertTrue(sink.closed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, hub.subscriberCount());
+    }
+}
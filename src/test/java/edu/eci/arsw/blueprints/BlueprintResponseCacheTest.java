@@ -0,0 +1,131 @@
+package edu.eci.arsw.blueprints;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.eci.arsw.blueprints.codec.BlueprintCodec;
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.filters.IdentityFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.CachingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.ForwardingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache.Format;
+import edu.eci.arsw.blueprints.services.BlueprintResponseCache.Rendered;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintResponseCacheTest {
+
+    private final InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+    private final MeterRegistry meters = new SimpleMeterRegistry();
+    private final BlueprintsServices services =
+            new BlueprintsServices(persistence, new IdentityFilter(), new FilterRegistry(), Long.MAX_VALUE, meters);
+    private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+    private final BlueprintResponseCache responses =
+            new BlueprintResponseCache(services, mapper, meters, 1 << 20, Duration.ofMinutes(1), 1024);
+    private BlueprintsServices cached;
+    private BlueprintResponseCache cachedResponses;
+
+    @Test
+    void testSameVersionIsServedFromCache() throws Exception {
+        long version = services.getBlueprintVersion("john", "house");
+        Rendered first = responses.render("john", "house", null, version, Format.JSON, false);
+        Rendered second = responses.render("john", "house", List.of(), version, Format.JSON, false);
+
+        assertSame(first, second);
+        assertEquals(1.0, meters.get("blueprints.response.cache").tag("result", "hit").functionCounter().count());
+        assertEquals("house", mapper.readTree(first.body()).at("/data/name").asText());
+    }
+
+    @Test
+    void testNewVersionRendersTheNewPoints() throws Exception {
+        long version = services.getBlueprintVersion("john", "house");
+        Rendered before = responses.render("john", "house", null, version, Format.BINARY, false);
+
+        services.addPoint("john", "house", 99, 99);
+        Rendered after = responses.render("john", "house", null, services.getBlueprintVersion("john", "house"),
+                Format.BINARY, false);
+
+        assertEquals(BlueprintCodec.decode(before.body()).pointCount() + 1, BlueprintCodec.decode(after.body()).pointCount());
+        assertEquals(0.0, meters.get("blueprints.response.cache").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testStaleLoadIsNotCachedUnderTheNewVersion() throws Exception {
+        // The "cache" profile's read-through cache over a store that hands out copies, like
+        // PostgreSQL. Between the write and the invalidation the cache still has the old copy
+        // while the version query already sees the new one; a render there must not pin it.
+        persistence.saveBlueprint(new Blueprint("race", "bp", List.of(new Point(0, 0))));
+        Rendered[] racing = new Rendered[1];
+        BlueprintPersistence store = new ForwardingBlueprintPersistence(persistence) {
+            @Override
+            public Blueprint getBlueprint(String author, String name) throws BlueprintNotFoundException {
+                Blueprint live = delegate.getBlueprint(author, name);
+                Blueprint copy = new Blueprint(author, name, live.getPoints());
+                copy.setVersion(live.version());
+                return copy;
+            }
+
+            @Override
+            public void addPoint(String author, String name, int x, int y) throws BlueprintNotFoundException {
+                delegate.addPoint(author, name, x, y);
+                racing[0] = cachedResponses.render(author, name, null, getBlueprintVersion(author, name),
+                        Format.BINARY, false);
+            }
+        };
+        cached = new BlueprintsServices(new CachingBlueprintPersistence(store, 1_000, Duration.ofMinutes(1)),
+                new IdentityFilter(), new FilterRegistry(), Long.MAX_VALUE, meters);
+        cachedResponses = new BlueprintResponseCache(cached, mapper, meters, 1 << 20, Duration.ofMinutes(1), 1024);
+        cached.getBlueprint("race", "bp");
+
+        cached.addPoint("race", "bp", 1, 1);
+        Rendered after = cachedResponses.render("race", "bp", null, cached.getBlueprintVersion("race", "bp"),
+                Format.BINARY, false);
+
+        assertEquals(1, BlueprintCodec.decode(racing[0].body()).pointCount());
+        assertEquals(2, BlueprintCodec.decode(after.body()).pointCount());
+    }
+
+    @Test
+    void testOnlyLargeBodiesAreGzipped() throws Exception {
+        assertFalse(responses.render("john", "house", null, 0, Format.JSON, true).gzipped());
+
+        Blueprint big = new Blueprint("big", "bp", 0);
+        for (int i = 0; i < 2_000; i++) big.addPoint(i, i);
+        persistence.saveBlueprint(big);
+        Rendered plain = responses.render("big", "bp", null, 0, Format.JSON, false);
+        Rendered gzipped = responses.render("big", "bp", null, 0, Format.JSON, true);
+
+        assertTrue(gzipped.gzipped());
+        assertTrue(gzipped.body().length < plain.body().length);
+        assertArrayEquals(plain.body(), new GZIPInputStream(new ByteArrayInputStream(gzipped.body())).readAllBytes());
+    }
+
+    @Test
+    void testAcceptHeaderNegotiation() {
+        assertEquals(Format.JSON, Format.negotiate(null));
+        assertEquals(Format.JSON, Format.negotiate("*/*"));
+        assertEquals(Format.BINARY, Format.negotiate(BlueprintCodec.MEDIA_TYPE));
+        assertEquals(Format.BINARY, Format.negotiate("*/*, " + BlueprintCodec.MEDIA_TYPE));
+        assertEquals(Format.JSON, Format.negotiate("application/json, " + BlueprintCodec.MEDIA_TYPE));
+        assertEquals(Format.BINARY, Format.negotiate("application/json;q=0.5, " + BlueprintCodec.MEDIA_TYPE));
+        assertNull(Format.negotiate("text/html"));
+
+        assertTrue(BlueprintResponseCache.acceptsGzip("gzip, deflate, br"));
+        assertFalse(BlueprintResponseCache.acceptsGzip("deflate, gzip;q=0"));
+        assertFalse(BlueprintResponseCache.acceptsGzip(null));
+    }
+}
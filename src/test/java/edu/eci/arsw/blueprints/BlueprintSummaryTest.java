@@ -0,0 +1,135 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlueprintSummaryTest {
+
+    @Test
+    void testIncrementalSummaryMatchesARecomputation() throws Exception {
+        Random random = new Random(20);
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("summary", "walk", 0));
+        for (int round = 0; round < 50; round++) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                persistence.addPoint("summary", "walk", random.nextInt(2_001) - 1_000, random.nextInt(2_001) - 1_000);
+            }
+            assertSummary(expected(persistence.getBlueprint("summary", "walk")),
+                    persistence.getBlueprintSummary("summary", "walk"));
+        }
+    }
+
+    @Test
+    void testBatchAppendIsOneWriteWithTheSameSummary() throws Exception {
+        Random random = new Random(22);
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("summary", "batched", 0));
+        for (int round = 0; round < 20; round++) {
+            int[] xy = new int[random.nextInt(40) * 2];
+            for (int i = 0; i < xy.length; i++) xy[i] = random.nextInt(2_001) - 1_000;
+            long version = persistence.getBlueprintVersion("summary", "batched");
+            int count = persistence.getBlueprint("summary", "batched").pointCount();
+
+            persistence.addPoints("summary", "batched", xy);
+
+            Blueprint bp = persistence.getBlueprint("summary", "batched");
+            assertEquals(count + xy.length / 2, bp.pointCount());
+            assertEquals(xy.length == 0 ? version : version + 1, bp.version());
+            assertSummary(expected(bp), persistence.getBlueprintSummary("summary", "batched"));
+        }
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoints("summary", "missing", new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> persistence.addPoints("summary", "batched", new int[] {1}));
+    }
+
+    @Test
+    void testConcurrentAppendsAreAllFoldedByTheNextRead() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("summary", "contended", 0));
+        int writers = 8, perWriter = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> done = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int seed = w;
+            done.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < perWriter; i++) {
+                    persistence.addPoint("summary", "contended", random.nextInt(2_001) - 1_000, random.nextInt(2_001) - 1_000);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get();
+        pool.shutdown();
+
+        BlueprintSummary summary = persistence.getBlueprintSummary("summary", "contended");
+        assertEquals(writers * perWriter, summary.pointCount());
+        assertSummary(expected(persistence.getBlueprint("summary", "contended")), summary);
+    }
+
+    @Test
+    void testExtremeCoordinatesDoNotOverflow() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("summary", "edge", 0));
+        persistence.addPoint("summary", "edge", Integer.MIN_VALUE, 0);
+        persistence.addPoint("summary", "edge", Integer.MAX_VALUE, 0);
+
+        BlueprintSummary summary = persistence.getBlueprintSummary("summary", "edge");
+
+        assertEquals(new BoundingBox(Integer.MIN_VALUE, 0, Integer.MAX_VALUE, 0), summary.bounds());
+        assertEquals(Math.pow(2, 32) - 1, summary.length());
+        assertEquals(2 * summary.length(), summary.perimeter());
+    }
+
+    @Test
+    void testAuthorSummariesAreOrderedByName() throws Exception {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        persistence.saveBlueprint(new Blueprint("john", "attic", 0));
+
+        List<BlueprintSummary> summaries = persistence.getSummariesByAuthor("john");
+
+        assertEquals(List.of("attic", "garage", "house"), summaries.stream().map(BlueprintSummary::name).toList());
+        assertEquals(new BlueprintSummary("john", "attic", 0, null, 0, 0), summaries.get(0));
+        assertEquals(40.0, summaries.get(2).perimeter());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getSummariesByAuthor("nobody"));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getBlueprintSummary("john", "missing"));
+    }
+
+    /** Summary computed from scratch over the points, for comparison with the stored one. */
+    static BlueprintSummary expected(Blueprint bp) {
+        int n = bp.pointCount();
+        if (n == 0) return new BlueprintSummary(bp.getAuthor(), bp.getName(), 0, null, 0, 0);
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        double length = 0;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, bp.xAt(i));
+            minY = Math.min(minY, bp.yAt(i));
+            maxX = Math.max(maxX, bp.xAt(i));
+            maxY = Math.max(maxY, bp.yAt(i));
+            if (i > 0) length += Math.hypot((double) bp.xAt(i) - bp.xAt(i - 1), (double) bp.yAt(i) - bp.yAt(i - 1));
+        }
+        double closing = Math.hypot((double) bp.xAt(0) - bp.xAt(n - 1), (double) bp.yAt(0) - bp.yAt(n - 1));
+        return new BlueprintSummary(bp.getAuthor(), bp.getName(), n, new BoundingBox(minX, minY, maxX, maxY),
+                length, length + closing);
+    }
+
+    /** Lengths are sums of square roots, so their rounding depends on where they are computed. */
+    static void assertSummary(BlueprintSummary expected, BlueprintSummary actual) {
+        assertEquals(expected.pointCount(), actual.pointCount());
+        assertEquals(expected.bounds(), actual.bounds());
+        assertEquals(expected.length(), actual.length(), 1e-6 * Math.max(1, expected.length()));
+        assertEquals(expected.perimeter(), actual.perimeter(), 1e-6 * Math.max(1, expected.perimeter()));
+    }
+}
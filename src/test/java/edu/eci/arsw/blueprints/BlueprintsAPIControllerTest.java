@@ -1,8 +1,12 @@
 package edu.eci.arsw.blueprints;
 
+import edu.eci.arsw.blueprints.codec.BlueprintCodec;
+import edu.eci.arsw.blueprints.codec.BlueprintFrameReader;
+import edu.eci.arsw.blueprints.codec.BlueprintFrameWriter;
 import edu.eci.arsw.blueprints.model.Blueprint;
 import edu.eci.arsw.blueprints.model.Point;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -10,10 +14,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -28,6 +38,9 @@ class BlueprintsAPIControllerTest {
     @Autowired
     private BlueprintsServices services;
 
+    @Autowired
+    private MeterRegistry meters;
+
     @Test
     void testGetAllBlueprints() throws Exception {
         mockMvc.perform(get("/api/v1/blueprints"))
@@ -37,6 +50,64 @@ class BlueprintsAPIControllerTest {
                 .andExpect(jsonPath("$.data").isArray());
     }
 
+    @Test
+    void testGetBlueprintsPageByCursor() throws Exception {
+        for (String name : List.of("a", "b", "c")) {
+            services.addNewBlueprint(new Blueprint("pager", name, List.of(new Point(1, 1))));
+        }
+
+        mockMvc.perform(get("/api/v1/blueprints").param("after", "pager:a").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "pager:b"))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].author").value("pager"))
+                .andExpect(jsonPath("$.data[0].name").value("b"));
+    }
+
+    @Test
+    void testGetBlueprintsPageInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints").param("after", "no-separator"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(get("/api/v1/blueprints").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBoundingBoxQueryMatchesPointsNotExtents() throws Exception {
+        services.addNewBlueprint(new Blueprint("spatial", "inside", List.of(new Point(10_000, 10_000), new Point(10_500, 10_500))));
+        // Its extent covers the box, but none of its points fall in it.
+        services.addNewBlueprint(new Blueprint("spatial", "around", List.of(new Point(9_000, 9_000), new Point(11_000, 11_000))));
+
+        mockMvc.perform(get("/api/v1/blueprints").param("bbox", "9990,9990,10010,10010"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].name", contains("inside")));
+
+        services.addPoint("spatial", "around", 10_005, 10_005);
+
+        mockMvc.perform(get("/api/v1/blueprints").param("bbox", "9990,9990,10010,10010"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].name", containsInAnyOrder("inside", "around")));
+        mockMvc.perform(get("/api/v1/blueprints").param("bbox", "10,10,0,0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/blueprints").param("bbox", "1,2,3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamAllBlueprintsAsNdjson() throws Exception {
+        services.addNewBlueprint(new Blueprint("streamer", "line", List.of(new Point(3, 4))));
+
+        MvcResult started = mockMvc.perform(get("/api/v1/blueprints").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(containsString("\"name\":\"line\"")))
+                .andExpect(content().string(containsString("\"points\":[{\"x\":3,\"y\":4}]}\n")));
+    }
+
     @Test
     void testCreateBlueprint() throws Exception {
         String json = """
@@ -79,6 +150,95 @@ class BlueprintsAPIControllerTest {
             .andExpect(jsonPath("$.message", containsString("already exists")));
     }
 
+    @Test
+    void testBulkCreateReportsPerItemStatus() throws Exception {
+        services.addNewBlueprint(new Blueprint("bulk", "existing", List.of()));
+
+        String json = """
+                [
+                    { "author": "bulk", "name": "new1", "points": [ { "x": 1, "y": 1 } ] },
+                    { "author": "bulk", "name": "existing", "points": [] },
+                    { "author": "bulk", "name": "new1", "points": [] },
+                    { "author": "", "name": "nameless", "points": [] },
+                    { "author": "bulk", "name": "new2", "points": [ { "x": 2, "y": 2 }, { "x": 3, "y": 3 } ] }
+                ]
+                """;
+
+        mockMvc.perform(post("/api/v1/blueprints/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].status").value(contains("created", "duplicate", "duplicate", "invalid", "created")));
+
+        mockMvc.perform(get("/api/v1/blueprints/bulk/new2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points", hasSize(2)));
+    }
+
+    @Test
+    void testBulkItemWithANullPointIsInvalid() throws Exception {
+        String json = """
+                [
+                    { "author": "bulknull", "name": "before", "points": [ { "x": 1, "y": 1 } ] },
+                    { "author": "bulknull", "name": "holes", "points": [ { "x": 1, "y": 1 }, null ] },
+                    { "author": "bulknull", "name": "after", "points": [] }
+                ]
+                """;
+
+        mockMvc.perform(post("/api/v1/blueprints/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].status").value(contains("created", "invalid", "created")))
+                .andExpect(jsonPath("$.data[1].name").value("holes"));
+
+        mockMvc.perform(get("/api/v1/blueprints/bulknull/holes"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/blueprints")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"author\": \"bulknull\", \"name\": \"single\", \"points\": [null]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testBadNdjsonLineIsInvalidAndTheRestIsImported() throws Exception {
+        String ndjson = """
+                {"author":"bulkbad","name":"a","points":[{"x":1,"y":2}]}
+                {"author":"bulkbad","name":"broken","points":[{"x":1,
+                {"author":"bulkbad","name":"typed","points":[{"x":"one","y":2}]}
+
+                {"author":"bulkbad","name":"b","points":[]}
+                """;
+
+        mockMvc.perform(post("/api/v1/blueprints/bulk")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].status").value(contains("created", "invalid", "invalid", "created")));
+
+        mockMvc.perform(get("/api/v1/blueprints/bulkbad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].name", containsInAnyOrder("a", "b")));
+    }
+
+    @Test
+    void testBulkCreateFromNdjson() throws Exception {
+        String ndjson = """
+                {"author":"bulknd","name":"a","points":[{"x":1,"y":2}]}
+                {"author":"bulknd","name":"b","points":[]}
+                """;
+
+        mockMvc.perform(post("/api/v1/blueprints/bulk")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].status").value(contains("created", "created")));
+
+        mockMvc.perform(get("/api/v1/blueprints/bulknd"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)));
+    }
+
     @Test
     void testGetBlueprintsByAuthor() throws Exception {
         services.addNewBlueprint(new Blueprint("author2", "bp2", 
@@ -111,6 +271,259 @@ class BlueprintsAPIControllerTest {
                 .andExpect(jsonPath("$.data.points").isArray());
     }
 
+    @Test
+    void testGetBlueprintWithRequestedFilterChain() throws Exception {
+        services.addNewBlueprint(new Blueprint("chained", "bp", List.of(
+                new Point(0, 0), new Point(0, 0), new Point(1, 1), new Point(2, 2), new Point(2, 2), new Point(3, 3))));
+
+        mockMvc.perform(get("/api/v1/blueprints/chained/bp").param("filters", "redundancy,undersampling"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points", hasSize(2)))
+                .andExpect(jsonPath("$.data.points[1].x").value(2));
+
+        mockMvc.perform(get("/api/v1/blueprints/chained/bp").param("filters", "redundancy,nope"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("nope")));
+        assertTrue(meters.timer("blueprints.filter", "filter", "RedundancyFilter+UndersamplingFilter").count() > 0);
+    }
+
+    @Test
+    void testBinaryFormatIsNegotiatedForReadsAndWrites() throws Exception {
+        Blueprint bp = new Blueprint("binary", "bp", List.of(new Point(10, 10), new Point(12, 9), new Point(-5, 40)));
+        mockMvc.perform(post("/api/v1/blueprints")
+                        .contentType(BlueprintCodec.MEDIA_TYPE)
+                        .content(BlueprintCodec.encode(bp)))
+                .andExpect(status().isCreated());
+
+        ByteArrayOutputStream point = new ByteArrayOutputStream();
+        try (BlueprintFrameWriter writer = new BlueprintFrameWriter(point)) {
+            writer.writePoint(7, -7);
+        }
+        mockMvc.perform(put("/api/v1/blueprints/binary/bp/points")
+                        .contentType(BlueprintCodec.MEDIA_TYPE)
+                        .content(point.toByteArray()))
+                .andExpect(status().isAccepted());
+
+        byte[] one = mockMvc.perform(get("/api/v1/blueprints/binary/bp").accept(BlueprintCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BlueprintCodec.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(List.of(new Point(10, 10), new Point(12, 9), new Point(-5, 40), new Point(7, -7)),
+                BlueprintCodec.decode(one).getPoints());
+
+        byte[] many = mockMvc.perform(get("/api/v1/blueprints/binary").accept(BlueprintCodec.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        BlueprintFrameReader reader = new BlueprintFrameReader(new ByteArrayInputStream(many));
+        assertEquals("bp", reader.read().getName());
+        assertNull(reader.read());
+
+        // JSON stays the default when the client accepts anything.
+        mockMvc.perform(get("/api/v1/blueprints/binary/bp").accept(MediaType.ALL))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testMalformedBinaryBodyIsRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/blueprints")
+                        .contentType(BlueprintCodec.MEDIA_TYPE)
+                        .content(new byte[] {5, 'a', 'b'}))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSpecificBlueprintReadIsMeteredPerLayer() throws Exception {
+        services.addNewBlueprint(new Blueprint("metered", "bp", List.of(new Point(1, 1), new Point(2, 2), new Point(3, 3))));
+        double pointsRead = meters.counter("blueprints.points.read").count();
+        long persistenceCalls = meters.timer("blueprints.persistence", "method", "getBlueprint").count();
+
+        mockMvc.perform(get("/api/v1/blueprints/metered/bp"))
+                .andExpect(status().isOk());
+
+        assertEquals(pointsRead + 3, meters.counter("blueprints.points.read").count());
+        assertEquals(persistenceCalls + 1, meters.timer("blueprints.persistence", "method", "getBlueprint").count());
+        assertTrue(meters.timer("blueprints.service", "method", "getBlueprint").count() > 0);
+        assertTrue(meters.timer("blueprints.filter", "filter", "IdentityFilter").count() > 0);
+        assertTrue(meters.get("blueprints.http.response.size").tag("uri", "/api/v1/blueprints/{author}/{bpname}")
+                .summary().totalAmount() > 0);
+
+        mockMvc.perform(get("/actuator/metrics/blueprints.points.read"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("blueprints.points.read"));
+    }
+
+    @Test
+    void testConditionalGetSkipsLoadingUnchangedBlueprint() throws Exception {
+        services.addNewBlueprint(new Blueprint("etag", "bp", List.of(new Point(1, 1), new Point(2, 2))));
+        String etag = mockMvc.perform(get("/api/v1/blueprints/etag/bp"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        double pointsRead = meters.counter("blueprints.points.read").count();
+        long loads = meters.timer("blueprints.persistence", "method", "getBlueprint").count();
+
+        mockMvc.perform(get("/api/v1/blueprints/etag/bp").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        assertEquals(pointsRead, meters.counter("blueprints.points.read").count());
+        assertEquals(loads, meters.timer("blueprints.persistence", "method", "getBlueprint").count());
+
+        mockMvc.perform(put("/api/v1/blueprints/etag/bp/points")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"x\": 3, \"y\": 3}"))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get("/api/v1/blueprints/etag/bp").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.data.points", hasSize(3)));
+    }
+
+    @Test
+    void testUnknownFilterIsRejectedEvenWithAMatchingETag() throws Exception {
+        services.addNewBlueprint(new Blueprint("etagfilter", "bp", List.of(new Point(1, 1))));
+        String etag = mockMvc.perform(get("/api/v1/blueprints/etagfilter/bp"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.matches("W/\"[0-9a-z]+-\\d+\""), etag);
+
+        mockMvc.perform(get("/api/v1/blueprints/etagfilter/bp").param("filters", "nope").header("If-None-Match", etag))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("nope")));
+        mockMvc.perform(get("/api/v1/blueprints/etagfilter/bp").param("filters", "redundancy").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        // Same version without this process's epoch, as an earlier run would have tagged it.
+        String bare = "W/\"" + etag.substring(etag.indexOf('-') + 1);
+        mockMvc.perform(get("/api/v1/blueprints/etagfilter/bp").header("If-None-Match", bare))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAuthorAndCollectionETagsChangeOnWrite() throws Exception {
+        services.addNewBlueprint(new Blueprint("etagauthor", "a", List.of(new Point(0, 0))));
+        String authorTag = mockMvc.perform(get("/api/v1/blueprints/etagauthor"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        String catalogTag = mockMvc.perform(get("/api/v1/blueprints"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/blueprints/etagauthor").header("If-None-Match", authorTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/blueprints").header("If-None-Match", catalogTag))
+                .andExpect(status().isNotModified());
+
+        services.addPoint("etagauthor", "a", 1, 1);
+
+        mockMvc.perform(get("/api/v1/blueprints/etagauthor").header("If-None-Match", authorTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/blueprints").header("If-None-Match", catalogTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/blueprints/nobody").header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSummaryViewTracksAppendsWithoutReadingPoints() throws Exception {
+        services.addNewBlueprint(new Blueprint("summary", "triangle", List.of(new Point(0, 0), new Point(3, 4))));
+        services.addNewBlueprint(new Blueprint("summary", "empty", List.of()));
+        services.addPoint("summary", "triangle", 3, 0);
+        double pointsRead = meters.counter("blueprints.points.read").count();
+
+        String etag = mockMvc.perform(get("/api/v1/blueprints/summary/triangle").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pointCount").value(3))
+                .andExpect(jsonPath("$.data.bounds.minX").value(0))
+                .andExpect(jsonPath("$.data.bounds.maxX").value(3))
+                .andExpect(jsonPath("$.data.bounds.maxY").value(4))
+                .andExpect(jsonPath("$.data.length").value(closeTo(9.0, 1e-9)))
+                .andExpect(jsonPath("$.data.perimeter").value(closeTo(12.0, 1e-9)))
+                .andExpect(jsonPath("$.data.points").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/blueprints/summary/triangle").param("view", "summary").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/blueprints/summary").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[*].name", contains("empty", "triangle")))
+                .andExpect(jsonPath("$.data[0].pointCount").value(0))
+                .andExpect(jsonPath("$.data[0].bounds").doesNotExist());
+        assertEquals(pointsRead, meters.counter("blueprints.points.read").count());
+
+        mockMvc.perform(get("/api/v1/blueprints/summary/missing").param("view", "summary"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/blueprints/nobody").param("view", "summary"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testPointRangesSyncABlueprintIncrementally() throws Exception {
+        Blueprint bp = new Blueprint("sync", "bp", 0);
+        for (int i = 0; i < 250; i++) bp.addPoint(i, -i);
+        services.addNewBlueprint(bp);
+
+        int since = 0, pages = 0;
+        while (since < 250) {
+            int n = since == 200 ? 50 : 100;
+            mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("since", "" + since).param("limit", "100"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data.pointCount").value(250))
+                    .andExpect(jsonPath("$.data.since").value(since))
+                    .andExpect(jsonPath("$.data.points", hasSize(n)))
+                    .andExpect(jsonPath("$.data.points[0].x").value(since))
+                    .andExpect(jsonPath("$.data.points[" + (n - 1) + "].y").value(1 - since - n));
+            since += n;
+            pages++;
+        }
+        assertEquals(3, pages);
+
+        String etag = mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("since", "250"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.points", hasSize(0)))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("since", "250").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        services.addPoint("sync", "bp", 7, 7);
+        mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("since", "250").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.pointCount").value(251))
+                .andExpect(jsonPath("$.data.points[0].x").value(7));
+
+        mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("since", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/blueprints/sync/bp/points").param("limit", "10001"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/blueprints/sync/missing/points"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(404));
+    }
+
+    @Test
+    void testRepeatedReadIsServedFromResponseCache() throws Exception {
+        Blueprint bp = new Blueprint("rendered", "bp", 0);
+        for (int i = 0; i < 500; i++) bp.addPoint(i, 2 * i);
+        services.addNewBlueprint(bp);
+        mockMvc.perform(get("/api/v1/blueprints/rendered/bp").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"));
+        double hits = meters.get("blueprints.response.cache").tag("result", "hit").functionCounter().count();
+        double pointsRead = meters.counter("blueprints.points.read").count();
+
+        byte[] body = mockMvc.perform(get("/api/v1/blueprints/rendered/bp").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(hits + 1, meters.get("blueprints.response.cache").tag("result", "hit").functionCounter().count());
+        assertEquals(pointsRead, meters.counter("blueprints.points.read").count());
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"code\":200"));
+    }
+
     @Test
     void testGetSpecificBlueprintNotFound() throws Exception {
         mockMvc.perform(get("/api/v1/blueprints/nonexistent/nonexistent"))
@@ -118,6 +531,18 @@ class BlueprintsAPIControllerTest {
                 .andExpect(jsonPath("$.code").value(404));
     }
 
+    @Test
+    void testBinaryReadErrorsKeepTheirStatus() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/nonexistent/nonexistent").accept(BlueprintCodec.MEDIA_TYPE))
+                .andExpect(status().isNotFound())
+                .andExpect(content().bytes(new byte[0]));
+
+        services.addNewBlueprint(new Blueprint("binaryerrors", "bp", List.of(new Point(1, 1))));
+        mockMvc.perform(get("/api/v1/blueprints/binaryerrors/bp").param("filters", "nope")
+                        .accept(BlueprintCodec.MEDIA_TYPE))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testAddPoint() throws Exception {
         services.addNewBlueprint(new Blueprint("author4", "bp4", 
@@ -153,4 +578,88 @@ class BlueprintsAPIControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(404));
     }
+
+    @Test
+    void testAddManyPointsInOneRequest() throws Exception {
+        services.addNewBlueprint(new Blueprint("batchapi", "trace", List.of(new Point(0, 0))));
+        long version = services.getBlueprintVersion("batchapi", "trace");
+
+        mockMvc.perform(post("/api/v1/blueprints/batchapi/trace/points")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[ { \"x\": 1, \"y\": 2 }, { \"x\": 3, \"y\": 4 }, { \"x\": 5, \"y\": 6 } ]"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.code").value(202))
+                .andExpect(jsonPath("$.message").value("3 points added"));
+
+        mockMvc.perform(post("/api/v1/blueprints/batchapi/trace/points")
+                .contentType("application/x-ndjson")
+                .content("{\"x\":7,\"y\":8}\n{\"x\":9,\"y\":10}\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.message").value("2 points added"));
+
+        assertEquals(version + 2, services.getBlueprintVersion("batchapi", "trace"));
+        assertEquals(List.of(new Point(0, 0), new Point(1, 2), new Point(3, 4), new Point(5, 6), new Point(7, 8), new Point(9, 10)),
+                services.getBlueprint("batchapi", "trace").getPoints());
+    }
+
+    @Test
+    void testInvalidPointBatchAddsNothing() throws Exception {
+        services.addNewBlueprint(new Blueprint("batchapi", "untouched", List.of(new Point(0, 0))));
+
+        mockMvc.perform(post("/api/v1/blueprints/batchapi/untouched/points")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[ { \"x\": 1, \"y\": 1 }, null ]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(post("/api/v1/blueprints/batchapi/untouched/points")
+                .contentType("application/x-ndjson")
+                .content("{\"x\":1,\"y\":1}\n{\"x\":\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value(400));
+        mockMvc.perform(post("/api/v1/blueprints/nonexistent/nonexistent/points")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[ { \"x\": 1, \"y\": 1 } ]"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(404));
+
+        assertEquals(1, services.getBlueprint("batchapi", "untouched").pointCount());
+    }
+
+    @Test
+    void testEventStreamPushesAppendsAndCreations() throws Exception {
+        services.addNewBlueprint(new Blueprint("watcher", "live", List.of(new Point(0, 0))));
+        MvcResult blueprint = mockMvc.perform(get("/api/v1/blueprints/watcher/live").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult author = mockMvc.perform(get("/api/v1/blueprints/watcher").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        services.addPoint("watcher", "live", 5, 6);
+        services.addNewBlueprint(new Blueprint("watcher", "other", List.of()));
+
+        String points = "{\"type\":\"points\",\"author\":\"watcher\",\"name\":\"live\",\"points\":[{\"x\":5,\"y\":6}]}";
+        String created = "{\"type\":\"created\",\"author\":\"watcher\",\"name\":\"other\",\"pointCount\":0}";
+        String blueprintEvents = awaitContent(blueprint, points);
+        assertTrue(blueprintEvents.startsWith("event:events\ndata:["), blueprintEvents);
+        assertFalse(blueprintEvents.contains("created"), blueprintEvents);
+        assertTrue(awaitContent(author, created).contains(points));
+    }
+
+    @Test
+    void testEventStreamOfMissingBlueprintIs404() throws Exception {
+        mockMvc.perform(get("/api/v1/blueprints/watcher/nonexistent").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isNotFound());
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = result.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
 }
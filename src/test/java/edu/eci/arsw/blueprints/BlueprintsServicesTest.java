@@ -1,16 +1,25 @@
 package edu.eci.arsw.blueprints;
 
 import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
 import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointRange;
 import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
 import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
 import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -23,6 +32,12 @@ class BlueprintsServicesTest {
     @Autowired
     private BlueprintsServices services;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
     @BeforeEach
     void setUp() throws BlueprintPersistenceException {
         try {
@@ -42,6 +57,38 @@ class BlueprintsServicesTest {
         assertNotNull(services.getBlueprint("alice", "house"));
     }
 
+    @Test
+    void testAddPointBumpsBlueprintAndAggregateVersions() throws Exception {
+        services.addNewBlueprint(new Blueprint("versioned", "bp", List.of(new Point(0, 0))));
+        long version = services.getBlueprintVersion("versioned", "bp");
+        long authorVersion = services.getAuthorVersion("versioned");
+        long catalogVersion = services.getCatalogVersion();
+
+        services.addPoint("versioned", "bp", 1, 1);
+
+        assertEquals(version + 1, services.getBlueprintVersion("versioned", "bp"));
+        assertEquals(version + 1, services.getBlueprint("versioned", "bp").version());
+        assertTrue(services.getAuthorVersion("versioned") > authorVersion);
+        assertTrue(services.getCatalogVersion() > catalogVersion);
+        assertEquals(0, services.getAuthorVersion("nobody"));
+        assertThrows(BlueprintNotFoundException.class, () -> services.getBlueprintVersion("nobody", "bp"));
+    }
+
+    @Test
+    void testSummaryColumnsFollowAppends() throws Exception {
+        services.addNewBlueprint(new Blueprint("summarized", "bp", List.of(new Point(5, -5), new Point(-7, 2))));
+        services.addNewBlueprint(new Blueprint("summarized", "empty", List.of()));
+        for (int i = 0; i < 30; i++) services.addPoint("summarized", "bp", i * i % 17 - 8, 3 * i - 40);
+        services.addPoint("summarized", "empty", 4, 4);
+
+        for (String name : List.of("bp", "empty")) {
+            BlueprintSummaryTest.assertSummary(BlueprintSummaryTest.expected(services.getBlueprint("summarized", name)),
+                    services.getBlueprintSummary("summarized", name));
+        }
+        assertEquals(List.of(32, 1), services.getSummariesByAuthor("summarized").stream()
+                .map(BlueprintSummary::pointCount).toList());
+    }
+
     @Test
     void testAddDuplicateBlueprint() {
         Blueprint bp = new Blueprint("testauthor", "testblueprint", List.of());
@@ -95,6 +142,149 @@ class BlueprintsServicesTest {
             .anyMatch(p -> p.x() == 20 && p.y() == 20));
     }
 
+    @Test
+    void testAddPointsKeepAppendOrder() throws BlueprintPersistenceException, BlueprintNotFoundException {
+        services.addNewBlueprint(new Blueprint("appender", "trace", List.of(new Point(0, 0))));
+        for (int i = 1; i <= 5; i++) {
+            services.addPoint("appender", "trace", i, -i);
+        }
+
+        List<Point> points = services.getBlueprint("appender", "trace").getPoints();
+        assertEquals(6, points.size());
+        for (int i = 0; i <= 5; i++) {
+            assertEquals(new Point(i, -i), points.get(i));
+        }
+    }
+
+    @Test
+    void testBatchAppendIsOneWriteWithBatchedInserts() throws Exception {
+        services.addNewBlueprint(new Blueprint("batched", "trace", List.of(new Point(0, 0), new Point(1, 1))));
+        long version = services.getBlueprintVersion("batched", "trace");
+        long catalogVersion = services.getCatalogVersion();
+        int n = 1_200;
+        int[] xy = new int[n * 2];
+        for (int i = 0; i < n; i++) {
+            xy[i * 2] = 2 + i;
+            xy[i * 2 + 1] = i % 2 == 0 ? -i : 20_000 + i;
+        }
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        services.addPoints("batched", "trace", xy);
+        assertEquals(n, stats.getEntityInsertCount());
+        assertTrue(stats.getPrepareStatementCount() < 30, "statements: " + stats.getPrepareStatementCount());
+
+        assertEquals(version + 1, services.getBlueprintVersion("batched", "trace"));
+        assertEquals(catalogVersion + 1, services.getCatalogVersion());
+        Blueprint bp = services.getBlueprint("batched", "trace");
+        assertEquals(n + 2, bp.pointCount());
+        for (int i = 0; i < n; i++) assertEquals(new Point(xy[i * 2], xy[i * 2 + 1]), bp.getPoints().get(i + 2));
+        BlueprintSummaryTest.assertSummary(BlueprintSummaryTest.expected(bp), services.getBlueprintSummary("batched", "trace"));
+        assertTrue(services.getBlueprintsInBox(new BoundingBox(1_000, 20_990, 1_010, 21_010)).contains(bp));
+
+        services.addPoint("batched", "trace", 7, 7);
+        assertEquals(new Point(7, 7), services.getBlueprint("batched", "trace").getPoints().get(n + 2));
+        assertThrows(BlueprintNotFoundException.class, () -> services.addPoints("nonexistent", "nonexistent", new int[0]));
+    }
+
+    @Test
+    void testPointOrderFollowsOrdinalsNotIds() throws Exception {
+        services.addNewBlueprint(new Blueprint("ordinals", "trace", List.of(new Point(0, 0), new Point(1, 1))));
+        for (int i = 2; i < 6; i++) services.addPoint("ordinals", "trace", i, i);
+        // Another instance's id block can give a later append a lower id: reverse the ids.
+        jdbc.update("update point set id = -id where blueprint_id = "
+                + "(select id from blueprint where author = 'ordinals' and name = 'trace')");
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), jdbc.queryForList("""
+                select p.ordinal from point p join blueprint b on b.id = p.blueprint_id
+                where b.author = 'ordinals' order by p.ordinal""", Integer.class));
+        List<Point> points = services.getBlueprint("ordinals", "trace").getPoints();
+        for (int i = 0; i < 6; i++) assertEquals(new Point(i, i), points.get(i));
+        services.addPoint("ordinals", "trace", 6, 6);
+        assertEquals(new Point(6, 6), services.getBlueprint("ordinals", "trace").getPoints().get(6));
+    }
+
+    @Test
+    void testPointRangeReadsOnlyTheRangeByOrdinal() throws Exception {
+        int n = 2_000;
+        List<Point> pts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) pts.add(new Point(i, -i));
+        services.addNewBlueprint(new Blueprint("ranges", "trace", pts));
+        services.addPoint("ranges", "trace", n, -n);
+        long version = services.getBlueprintVersion("ranges", "trace");
+        // Ids out of ordinal order, as after appends from several instances.
+        jdbc.update("update point set id = -id where blueprint_id = "
+                + "(select id from blueprint where author = 'ranges' and name = 'trace')");
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        PointRange range = services.getPoints("ranges", "trace", 1_500, 100);
+        assertEquals(0, stats.getEntityLoadCount());
+        assertTrue(stats.getPrepareStatementCount() <= 2, "statements: " + stats.getPrepareStatementCount());
+        assertEquals(version, range.version());
+        assertEquals(n + 1, range.pointCount());
+        assertEquals(1_500, range.since());
+        assertEquals(100, range.points().size());
+        for (int i = 0; i < 100; i++) assertEquals(new Point(1_500 + i, -1_500 - i), range.points().get(i));
+
+        assertEquals(List.of(new Point(n - 1, 1 - n), new Point(n, -n)),
+                services.getPoints("ranges", "trace", n - 1, 1_000).points());
+        assertEquals(List.of(), services.getPoints("ranges", "trace", n + 1, 1_000).points());
+        assertEquals(List.of(), services.getPoints("ranges", "trace", Integer.MAX_VALUE, Integer.MAX_VALUE).points());
+        assertThrows(BlueprintNotFoundException.class, () -> services.getPoints("nonexistent", "nonexistent", 0, 10));
+    }
+
+    @Test
+    void testCollectionReadsAreSingleStatement() throws BlueprintPersistenceException, BlueprintNotFoundException {
+        for (int b = 0; b < 5; b++) {
+            services.addNewBlueprint(new Blueprint("flatreader", "bp" + b,
+                List.of(new Point(b, 0), new Point(b, 1), new Point(b, 2))));
+        }
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        stats.clear();
+        Set<Blueprint> byAuthor = services.getBlueprintsByAuthor("flatreader");
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(5, byAuthor.size());
+        byAuthor.forEach(bp -> assertEquals(3, bp.getPoints().size()));
+
+        stats.clear();
+        Set<Blueprint> all = services.getAllBlueprints();
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertTrue(all.containsAll(byAuthor));
+    }
+
+    @Test
+    void testCatalogVersionIsAStoredCounter() throws Exception {
+        long before = services.getCatalogVersion();
+
+        services.addNewBlueprint(new Blueprint("counted", "a", List.of(new Point(0, 0))));
+        assertEquals(before + 1, services.getCatalogVersion());
+        services.addPoint("counted", "a", 1, 1);
+        assertEquals(before + 2, services.getCatalogVersion());
+        services.addNewBlueprints(List.of(new Blueprint("counted", "b", List.of()), new Blueprint("counted", "c", List.of())));
+        assertEquals(before + 3, services.getCatalogVersion());
+        assertThrows(BlueprintPersistenceException.class,
+                () -> services.addNewBlueprint(new Blueprint("counted", "a", List.of())));
+        assertEquals(before + 3, services.getCatalogVersion());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        services.getCatalogVersion();
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertTrue(stats.getQueries().length == 1 && stats.getQueries()[0].contains("CatalogVersionEntity"));
+        assertEquals(16, jdbc.queryForObject("select count(*) from catalog_version", Integer.class));
+    }
+
+    @Test
+    void testDenseBoxLoadsCandidatesInChunks() {
+        List<Blueprint> dense = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) dense.add(new Blueprint("dense", "bp" + i, List.of(new Point(9_000, 9_000 + i % 7))));
+        services.addNewBlueprints(dense);
+
+        assertEquals(new HashSet<>(dense), services.getBlueprintsInBox(new BoundingBox(8_990, 8_990, 9_010, 9_010)));
+    }
+
     @Test
     void testAddPointToNonexistentBlueprint() {
         assertThrows(BlueprintNotFoundException.class, () -> {
@@ -0,0 +1,63 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.filters.UndersamplingFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectionFilteringTest {
+
+    private static InMemoryBlueprintPersistence catalog() {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        List<Blueprint> bps = new ArrayList<>();
+        for (int b = 0; b < 64; b++) {
+            Blueprint bp = new Blueprint("bulk", "bp" + b, 0);
+            for (int i = 0; i < 1_000; i++) bp.addPoint(b, i);
+            bps.add(bp);
+        }
+        persistence.saveBlueprints(bps);
+        return persistence;
+    }
+
+    @Test
+    void testCollectionsAreFilteredInBothModes() throws Exception {
+        InMemoryBlueprintPersistence persistence = catalog();
+        BlueprintsServices sequential = new BlueprintsServices(persistence, new UndersamplingFilter(), new FilterRegistry(), Long.MAX_VALUE, new SimpleMeterRegistry());
+        BlueprintsServices parallel = new BlueprintsServices(persistence, new UndersamplingFilter(), new FilterRegistry(), 0, new SimpleMeterRegistry());
+
+        for (BlueprintsServices services : List.of(sequential, parallel)) {
+            Set<Blueprint> byAuthor = services.getBlueprintsByAuthor("bulk");
+            assertEquals(64, byAuthor.size());
+            for (Blueprint bp : byAuthor) assertEquals(500, bp.pointCount());
+
+            for (Blueprint bp : services.getAllBlueprints()) {
+                Blueprint raw = persistence.getBlueprint(bp.getAuthor(), bp.getName());
+                assertEquals(new UndersamplingFilter().apply(raw).getPoints(), bp.getPoints());
+            }
+
+            for (Blueprint bp : services.getBlueprintsPage("bulk", "bp10", 5)) assertEquals(500, bp.pointCount());
+            services.forEachBlueprint(bp -> {
+                if (bp.getAuthor().equals("bulk")) assertEquals(500, bp.pointCount());
+            });
+        }
+    }
+
+    @Test
+    void testParallelModeKeepsOrder() throws Exception {
+        InMemoryBlueprintPersistence persistence = catalog();
+        BlueprintsServices sequential = new BlueprintsServices(persistence, new UndersamplingFilter(), new FilterRegistry(), Long.MAX_VALUE, new SimpleMeterRegistry());
+        BlueprintsServices parallel = new BlueprintsServices(persistence, new UndersamplingFilter(), new FilterRegistry(), 0, new SimpleMeterRegistry());
+
+        assertEquals(List.copyOf(sequential.getBlueprintsByAuthor("bulk")), List.copyOf(parallel.getBlueprintsByAuthor("bulk")));
+        assertEquals(sequential.getBlueprintsPage(null, null, 50), parallel.getBlueprintsPage(null, null, 50));
+    }
+}
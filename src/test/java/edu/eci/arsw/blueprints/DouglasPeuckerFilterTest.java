@@ -0,0 +1,83 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.filters.DouglasPeuckerFilter;
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DouglasPeuckerFilterTest {
+
+    @Test
+    void testDropsPointsWithinToleranceAndKeepsCorners() {
+        Blueprint bp = new Blueprint("rdp", "square", 0);
+        // Noisy square: each side has jitter of at most 1 unit.
+        int[][] corners = {{0, 0}, {100, 0}, {100, 100}, {0, 100}, {0, 0}};
+        for (int c = 0; c + 1 < corners.length; c++) {
+            for (int t = 0; t < 50; t++) {
+                int x = corners[c][0] + (corners[c + 1][0] - corners[c][0]) * t / 50;
+                int y = corners[c][1] + (corners[c + 1][1] - corners[c][1]) * t / 50;
+                bp.addPoint(x + (t % 2), y);
+            }
+        }
+        bp.addPoint(0, 0);
+
+        List<Point> simplified = new DouglasPeuckerFilter(2.0, 1_000).apply(bp).getPoints();
+
+        assertEquals(List.of(new Point(0, 0), new Point(100, 0), new Point(100, 100), new Point(0, 100), new Point(0, 0)),
+                simplified);
+    }
+
+    @Test
+    void testParallelSplitMatchesSequential() {
+        Random random = new Random(7);
+        Blueprint bp = new Blueprint("rdp", "walk", 0);
+        int x = 0, y = 0;
+        for (int i = 0; i < 200_000; i++) {
+            x += random.nextInt(11) - 5;
+            y += random.nextInt(11) - 5;
+            bp.addPoint(x, y);
+        }
+
+        Blueprint sequential = new DouglasPeuckerFilter(3.0, Integer.MAX_VALUE).apply(bp);
+        Blueprint parallel = new DouglasPeuckerFilter(3.0, 1_000).apply(bp);
+
+        assertTrue(sequential.pointCount() < bp.pointCount());
+        assertEquals(sequential.getPoints(), parallel.getPoints());
+    }
+
+    @Test
+    void testLopsidedSplitsDoNotNestTasks() {
+        // Zigzag with shrinking amplitude: every split keeps the point right after the segment
+        // start, so each split leaves a one-point side and an almost whole one.
+        int n = 10_000;
+        Blueprint bp = new Blueprint("rdp", "zigzag", n);
+        bp.addPoint(0, 0);
+        for (int i = 1; i < n - 1; i++) bp.addPoint(i, (i % 2 == 0 ? 1 : -1) * (10_000_000 - 200 * i));
+        bp.addPoint(n - 1, 0);
+
+        Blueprint parallel = new DouglasPeuckerFilter(1.0, 2).apply(bp);
+
+        assertEquals(n, parallel.pointCount());
+        assertEquals(new DouglasPeuckerFilter(1.0, Integer.MAX_VALUE).apply(bp).getPoints(), parallel.getPoints());
+    }
+
+    @Test
+    void testRegistryUsesTheConfiguredTolerance() {
+        Blueprint bp = new Blueprint("rdp", "bump", List.of(new Point(0, 0), new Point(50, 5), new Point(100, 0)));
+
+        assertEquals(3, new FilterRegistry().chain(List.of("simplify")).apply(bp).pointCount());
+        assertEquals(2, new FilterRegistry(10.0, 1_000).chain(List.of("simplify")).apply(bp).pointCount());
+    }
+
+    @Test
+    void testShortBlueprintsAreReturnedAsIs() {
+        Blueprint bp = new Blueprint("rdp", "short", List.of(new Point(0, 0), new Point(5, 5)));
+        assertSame(bp, new DouglasPeuckerFilter().apply(bp));
+    }
+}
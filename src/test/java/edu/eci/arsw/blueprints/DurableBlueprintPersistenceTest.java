@@ -0,0 +1,204 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistenceException;
+import edu.eci.arsw.blueprints.persistence.DurableBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableBlueprintPersistenceTest {
+
+    private final Path dir = createDir();
+    private final List<DurableBlueprintPersistence> opened = new ArrayList<>();
+
+    private static Path createDir() {
+        try {
+            return Files.createTempDirectory("blueprints-durable");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Snapshots only when asked, so each test decides where the cut is.
+    private DurableBlueprintPersistence open() throws IOException {
+        DurableBlueprintPersistence persistence = new DurableBlueprintPersistence(new InMemoryBlueprintPersistence(false),
+                dir, true, Long.MAX_VALUE, Duration.ofHours(1));
+        opened.add(persistence);
+        return persistence;
+    }
+
+    private DurableBlueprintPersistence restart(DurableBlueprintPersistence persistence) throws IOException {
+        persistence.close();
+        return open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (DurableBlueprintPersistence persistence : opened) persistence.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path f : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(f);
+        }
+    }
+
+    @Test
+    void testRestartReplaysEveryWriteFromTheLog() throws Exception {
+        DurableBlueprintPersistence persistence = open();
+        persistence.saveBlueprint(new Blueprint("alice", "kitchen", List.of(new Point(1, 1), new Point(2, 2))));
+        persistence.saveBlueprints(List.of(new Blueprint("bob", "a", List.of()), new Blueprint("bob", "b", List.of(new Point(9, 9)))));
+        persistence.addPoint("alice", "kitchen", 3, 3);
+        persistence.addPoints("bob", "a", new int[] {5_000, 5_000, 5_001, 5_002});
+        persistence.addPoint("bob", "b", -1, -1);
+        Map<String, Blueprint> before = state(persistence);
+        long catalogVersion = persistence.getCatalogVersion();
+
+        persistence = restart(persistence);
+
+        assertState(before, persistence);
+        assertTrue(persistence.getCatalogVersion() >= catalogVersion);
+        assertEquals(Set.of(persistence.getBlueprint("bob", "a")),
+                persistence.getBlueprintsInBox(new BoundingBox(4_990, 4_990, 5_010, 5_010)));
+        BlueprintSummaryTest.assertSummary(BlueprintSummaryTest.expected(persistence.getBlueprint("alice", "kitchen")),
+                persistence.getBlueprintSummary("alice", "kitchen"));
+    }
+
+    @Test
+    void testStartsEmptyAndRecoversOnlyWhatWasLogged() throws Exception {
+        DurableBlueprintPersistence persistence = open();
+        assertTrue(state(persistence).isEmpty());
+        persistence.saveBlueprint(new Blueprint("alice", "kitchen", List.of(new Point(1, 1))));
+
+        persistence = restart(persistence);
+
+        assertEquals(Set.of("alice/kitchen"), state(persistence).keySet());
+    }
+
+    @Test
+    void testRecoveryLoadsTheSnapshotAndReplaysTheTail() throws Exception {
+        DurableBlueprintPersistence persistence = open();
+        persistence.saveBlueprint(new Blueprint("snap", "bp", List.of(new Point(0, 0))));
+        for (int i = 1; i <= 100; i++) persistence.addPoint("snap", "bp", i, i);
+        persistence.snapshot();
+        for (int i = 101; i <= 150; i++) persistence.addPoint("snap", "bp", i, -i);
+        persistence.saveBlueprint(new Blueprint("snap", "after", List.of(new Point(7, 7))));
+        Map<String, Blueprint> before = state(persistence);
+
+        persistence = restart(persistence);
+
+        assertState(before, persistence);
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().startsWith("snapshot-")).count());
+        }
+    }
+
+    @Test
+    void testSnapshotTakenDuringWritesLosesAndDuplicatesNothing() throws Exception {
+        DurableBlueprintPersistence persistence = open();
+        int writers = 4, perWriter = 2_000;
+        for (int w = 0; w < writers; w++) persistence.saveBlueprint(new Blueprint("busy", "bp" + w, 0));
+        persistence.saveBlueprint(new Blueprint("busy", "shared", 0));
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int id = w;
+            DurableBlueprintPersistence store = persistence;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    store.addPoint("busy", "bp" + id, id, i);
+                    store.addPoints("busy", "shared", new int[] {id, i, id, i});
+                }
+                return null;
+            }));
+        }
+        DurableBlueprintPersistence store = persistence;
+        Future<?> snapshots = pool.submit(() -> {
+            while (!done.get()) store.snapshot();
+            return null;
+        });
+        for (Future<?> f : futures) f.get();
+        done.set(true);
+        snapshots.get();
+        pool.shutdown();
+        Map<String, Blueprint> before = state(persistence);
+
+        persistence = restart(persistence);
+
+        assertState(before, persistence);
+        assertEquals(writers * perWriter * 2, persistence.getBlueprint("busy", "shared").pointCount());
+    }
+
+    @Test
+    void testTornTailIsDiscardedAndTheLogContinues() throws Exception {
+        DurableBlueprintPersistence persistence = open();
+        persistence.saveBlueprint(new Blueprint("torn", "bp", List.of(new Point(1, 1))));
+        persistence.addPoint("torn", "bp", 2, 2);
+        persistence.close();
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(f -> f.getFileName().toString().startsWith("wal-")).max(Comparator.naturalOrder()).orElseThrow();
+        }
+        // A record header promising more bytes than the crash left behind.
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        persistence = open();
+        assertEquals(List.of(new Point(1, 1), new Point(2, 2)), persistence.getBlueprint("torn", "bp").getPoints());
+        persistence.addPoint("torn", "bp", 3, 3);
+
+        persistence = restart(persistence);
+        assertEquals(List.of(new Point(1, 1), new Point(2, 2), new Point(3, 3)), persistence.getBlueprint("torn", "bp").getPoints());
+    }
+
+    @Test
+    void testRejectedWritesAreNotLogged() throws Exception {
+        DurableBlueprintPersistence persistence = open();
+        persistence.saveBlueprint(new Blueprint("dup", "bp", List.of(new Point(1, 1))));
+        assertThrows(BlueprintPersistenceException.class,
+                () -> persistence.saveBlueprint(new Blueprint("dup", "bp", List.of(new Point(9, 9)))));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("dup", "missing", 1, 1));
+
+        DurableBlueprintPersistence restarted = restart(persistence);
+
+        assertEquals(List.of(new Point(1, 1)), restarted.getBlueprint("dup", "bp").getPoints());
+        assertThrows(BlueprintNotFoundException.class, () -> restarted.getBlueprint("dup", "missing"));
+    }
+
+    private static Map<String, Blueprint> state(DurableBlueprintPersistence persistence) {
+        Map<String, Blueprint> all = new HashMap<>();
+        persistence.forEachBlueprint(bp -> all.put(bp.getAuthor() + "/" + bp.getName(), bp));
+        return all;
+    }
+
+    // Same blueprints, points and versions.
+    private static void assertState(Map<String, Blueprint> expected, DurableBlueprintPersistence persistence) {
+        Map<String, Blueprint> actual = state(persistence);
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, Blueprint> e : expected.entrySet()) {
+            Blueprint a = actual.get(e.getKey());
+            assertEquals(e.getValue().getPoints(), a.getPoints(), e.getKey());
+            assertEquals(e.getValue().version(), a.version(), e.getKey());
+        }
+    }
+}
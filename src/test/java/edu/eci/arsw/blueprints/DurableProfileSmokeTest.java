@@ -0,0 +1,49 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.persistence.PostgresBlueprintPersistence;
+import edu.eci.arsw.blueprints.services.BlueprintsServices;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// No "test" profile: the durable store must start without any data source, H2 included.
+@SpringBootTest
+@ActiveProfiles("durable")
+class DurableProfileSmokeTest {
+
+    @DynamicPropertySource
+    static void logDir(DynamicPropertyRegistry registry) throws IOException {
+        String dir = Files.createTempDirectory("blueprints-durable-context").toString();
+        registry.add("blueprints.durable.dir", () -> dir);
+        registry.add("blueprints.durable.fsync", () -> "false");
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private BlueprintsServices services;
+
+    @Test
+    void testStartsWithoutDatabaseBeansOrSampleData() throws Exception {
+        assertEquals(0, context.getBeanNamesForType(DataSource.class).length);
+        assertEquals(0, context.getBeanNamesForType(PostgresBlueprintPersistence.class).length);
+        assertTrue(services.getAllBlueprints().isEmpty());
+
+        services.addNewBlueprint(new Blueprint("durable", "bp", List.of(new Point(1, 1))));
+        assertEquals(List.of(new Point(1, 1)), services.getBlueprint("durable", "bp").getPoints());
+    }
+}
@@ -0,0 +1,64 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.filters.BlueprintsFilter;
+import edu.eci.arsw.blueprints.filters.FilterChain;
+import edu.eci.arsw.blueprints.filters.FilterRegistry;
+import edu.eci.arsw.blueprints.filters.RedundancyFilter;
+import edu.eci.arsw.blueprints.filters.UndersamplingFilter;
+import edu.eci.arsw.blueprints.model.Blueprint;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterChainTest {
+
+    @Test
+    void testFusedChainMatchesApplyingFiltersOneByOne() {
+        List<List<BlueprintsFilter>> chains = List.of(
+                List.of(new RedundancyFilter(), new UndersamplingFilter()),
+                List.of(new UndersamplingFilter(), new RedundancyFilter()),
+                List.of(new UndersamplingFilter(), new UndersamplingFilter(), new RedundancyFilter()));
+        Random random = new Random(42);
+        for (int n = 0; n < 40; n++) {
+            Blueprint bp = new Blueprint("chain", "bp" + n, 0);
+            for (int i = 0; i < n; i++) bp.addPoint(random.nextInt(3), random.nextInt(3));
+
+            for (List<BlueprintsFilter> chain : chains) {
+                Blueprint naive = bp;
+                for (BlueprintsFilter f : chain) naive = f.apply(naive);
+                Blueprint fused = new FilterChain(chain).apply(bp);
+                assertEquals(naive.getPoints(), fused.getPoints(), "n=" + n + " chain=" + chain);
+            }
+        }
+    }
+
+    @Test
+    void testBufferedStageForFiltersWithoutStreamingForm() {
+        BlueprintsFilter reverse = bp -> {
+            Blueprint out = new Blueprint(bp.getAuthor(), bp.getName(), bp.pointCount());
+            for (int i = bp.pointCount() - 1; i >= 0; i--) out.addPoint(bp.xAt(i), bp.yAt(i));
+            return out;
+        };
+        Blueprint bp = new Blueprint("chain", "reverse", 0);
+        bp.addPoint(1, 1);
+        bp.addPoint(1, 1);
+        bp.addPoint(2, 2);
+
+        Blueprint fused = new FilterChain(List.of(reverse, new RedundancyFilter())).apply(bp);
+
+        assertEquals(new RedundancyFilter().apply(reverse.apply(bp)).getPoints(), fused.getPoints());
+    }
+
+    @Test
+    void testChainsAreTimedUnderTheirStageNames() {
+        FilterRegistry registry = new FilterRegistry();
+
+        assertEquals("RedundancyFilter+UndersamplingFilter", registry.chain(List.of("redundancy", "undersampling")).name());
+        assertEquals("DouglasPeuckerFilter", registry.chain(List.of("simplify")).name());
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.chain(List.of("identity", "identity", "identity", "identity", "identity")));
+    }
+}
@@ -0,0 +1,159 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BlueprintSummary;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointRange;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.BlueprintPersistence;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own in-memory database: create-drop must not touch the schema of the "test"-only context.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:packed")
+@ActiveProfiles({"test", "packed"})
+class PackedBlueprintPersistenceTest {
+
+    @Autowired
+    private BlueprintPersistence persistence;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void testPackedProfileStoresOneRowPerBlueprint() throws Exception {
+        persistence.saveBlueprint(new Blueprint("packed", "one", List.of(
+                new Point(1, 2), new Point(Integer.MIN_VALUE, Integer.MAX_VALUE), new Point(-3, 4))));
+
+        Blueprint bp = persistence.getBlueprint("packed", "one");
+
+        assertEquals(List.of(new Point(1, 2), new Point(Integer.MIN_VALUE, Integer.MAX_VALUE), new Point(-3, 4)),
+                bp.getPoints());
+        assertEquals(0, jdbc.queryForObject("select count(*) from point", Integer.class));
+    }
+
+    @Test
+    void testAppendsExtendThePackedColumnAndBumpTheVersion() throws Exception {
+        persistence.saveBlueprint(new Blueprint("packed", "append", List.of(new Point(0, 0))));
+        long version = persistence.getBlueprintVersion("packed", "append");
+
+        for (int i = 1; i <= 100; i++) persistence.addPoint("packed", "append", i, -i);
+
+        Blueprint bp = persistence.getBlueprint("packed", "append");
+        assertEquals(101, bp.pointCount());
+        assertEquals(new Point(100, -100), bp.getPoints().get(100));
+        assertEquals(version + 100, bp.version());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("packed", "missing", 1, 1));
+    }
+
+    @Test
+    void testPointRangeIsCutFromThePackedColumn() throws Exception {
+        persistence.saveBlueprint(new Blueprint("packed", "range", List.of(
+                new Point(0, 0), new Point(Integer.MIN_VALUE, Integer.MAX_VALUE))));
+        int[] xy = new int[200];
+        for (int i = 0; i < 100; i++) {
+            xy[i * 2] = 2 + i;
+            xy[i * 2 + 1] = -2 - i;
+        }
+        persistence.addPoints("packed", "range", xy);
+
+        PointRange range = persistence.getPoints("packed", "range", 1, 3);
+        assertEquals(List.of(new Point(Integer.MIN_VALUE, Integer.MAX_VALUE), new Point(2, -2), new Point(3, -3)),
+                range.points());
+        assertEquals(persistence.getBlueprintVersion("packed", "range"), range.version());
+        assertEquals(102, range.pointCount());
+        assertEquals(List.of(new Point(101, -101)), persistence.getPoints("packed", "range", 101, 50).points());
+        assertEquals(List.of(), persistence.getPoints("packed", "range", 102, 50).points());
+        assertEquals(List.of(), persistence.getPoints("packed", "range", Integer.MAX_VALUE, Integer.MAX_VALUE).points());
+
+        persistence.saveBlueprint(new Blueprint("packed", "empty", List.of()));
+        assertEquals(0, persistence.getPoints("packed", "empty", 0, 10).pointCount());
+        assertEquals(List.of(), persistence.getPoints("packed", "empty", 0, 10).points());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getPoints("packed", "missing", 0, 10));
+    }
+
+    @Test
+    void testBatchAppendIsOneStatementAndOneVersion() throws Exception {
+        persistence.saveBlueprint(new Blueprint("packedbatch", "trace", List.of(new Point(3, 3))));
+        long version = persistence.getBlueprintVersion("packedbatch", "trace");
+
+        persistence.addPoints("packedbatch", "trace", new int[] {4, -4, Integer.MAX_VALUE, Integer.MIN_VALUE, 6_000, 6_000});
+
+        Blueprint bp = persistence.getBlueprint("packedbatch", "trace");
+        assertEquals(List.of(new Point(3, 3), new Point(4, -4), new Point(Integer.MAX_VALUE, Integer.MIN_VALUE),
+                new Point(6_000, 6_000)), bp.getPoints());
+        assertEquals(version + 1, bp.version());
+        BlueprintSummaryTest.assertSummary(BlueprintSummaryTest.expected(bp),
+                persistence.getBlueprintSummary("packedbatch", "trace"));
+        assertTrue(persistence.getBlueprintsInBox(new BoundingBox(5_990, 5_990, 6_010, 6_010)).contains(bp));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoints("packedbatch", "missing", new int[] {1, 1}));
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoints("packedbatch", "missing", new int[0]));
+    }
+
+    @Test
+    void testAppendsKeepTheSummaryColumnsCurrent() throws Exception {
+        persistence.saveBlueprint(new Blueprint("packedsum", "walk", List.of(new Point(-1, -1))));
+        persistence.saveBlueprint(new Blueprint("packedsum", "empty", 0));
+        for (int i = 0; i < 40; i++) persistence.addPoint("packedsum", "walk", 7 * i % 23, -3 * i);
+
+        BlueprintSummaryTest.assertSummary(BlueprintSummaryTest.expected(persistence.getBlueprint("packedsum", "walk")),
+                persistence.getBlueprintSummary("packedsum", "walk"));
+        assertEquals(List.of(0, 41), persistence.getSummariesByAuthor("packedsum").stream()
+                .map(BlueprintSummary::pointCount).toList());
+    }
+
+    @Test
+    void testBoundingBoxQueryUsesCellsOfAppendedPoints() throws Exception {
+        persistence.saveBlueprint(new Blueprint("packed", "spatial", List.of(new Point(-5_000, -5_000))));
+        assertTrue(persistence.getBlueprintsInBox(new BoundingBox(-4_010, -4_010, -3_990, -3_990)).isEmpty());
+
+        persistence.addPoint("packed", "spatial", -4_000, -4_000);
+
+        assertEquals(Set.of(new Blueprint("packed", "spatial", 0)),
+                persistence.getBlueprintsInBox(new BoundingBox(-4_010, -4_010, -3_990, -3_990)));
+        assertEquals(Set.of(new Blueprint("packed", "spatial", 0)),
+                persistence.getBlueprintsInBox(new BoundingBox(-5_000, -5_000, -5_000, -5_000)));
+    }
+
+    @Test
+    void testDenseBoxLoadsCandidatesInChunks() throws Exception {
+        List<Blueprint> dense = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) dense.add(new Blueprint("packeddense", "bp" + i, List.of(new Point(9_000, 9_000 + i % 7))));
+        persistence.saveBlueprints(dense);
+
+        assertEquals(new HashSet<>(dense), persistence.getBlueprintsInBox(new BoundingBox(8_990, 8_990, 9_010, 9_010)));
+    }
+
+    @Test
+    void testPagesAndStreamingReadPackedRows() {
+        List<Blueprint> bps = new ArrayList<>();
+        for (int b = 0; b < 30; b++) {
+            Blueprint bp = new Blueprint("pages", String.format("bp%02d", b), 0);
+            for (int i = 0; i < b; i++) bp.addPoint(b, i);
+            bps.add(bp);
+        }
+        persistence.saveBlueprints(bps);
+
+        List<Blueprint> page = persistence.getBlueprintsPage("pages", "bp09", 5);
+        assertEquals(List.of("bp10", "bp11", "bp12", "bp13", "bp14"), page.stream().map(Blueprint::getName).toList());
+        assertEquals(12, page.get(2).pointCount());
+
+        int[] streamed = new int[1];
+        persistence.forEachBlueprint(bp -> {
+            if (bp.getAuthor().equals("pages")) assertEquals(Integer.parseInt(bp.getName().substring(2)), bp.pointCount());
+            streamed[0]++;
+        });
+        assertTrue(streamed[0] >= 30);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.BoundingBox;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialIndexTest {
+
+    @Test
+    void testGridQueriesMatchAFullScan() throws Exception {
+        Random random = new Random(19);
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        for (int b = 0; b < 300; b++) {
+            Blueprint bp = new Blueprint("grid", "bp" + b, 0);
+            int x = random.nextInt(20_000) - 10_000, y = random.nextInt(20_000) - 10_000;
+            for (int i = 0; i < 20; i++) bp.addPoint(x += random.nextInt(201) - 100, y += random.nextInt(201) - 100);
+            persistence.saveBlueprint(bp);
+        }
+        for (int i = 0; i < 500; i++) {
+            persistence.addPoint("grid", "bp" + random.nextInt(300), random.nextInt(20_000) - 10_000, random.nextInt(20_000) - 10_000);
+        }
+
+        // Small boxes take the cell lookup, the huge ones the walk over occupied cells.
+        for (int q = 0; q < 200; q++) {
+            int size = q % 10 == 0 ? 1_000_000 : random.nextInt(2_000);
+            int minX = random.nextInt(20_000) - 10_000, minY = random.nextInt(20_000) - 10_000;
+            BoundingBox box = new BoundingBox(minX, minY, minX + size, minY + size);
+
+            Set<Blueprint> expected = new HashSet<>();
+            for (Blueprint bp : persistence.getAllBlueprints()) {
+                if (box.containsAnyPoint(bp)) expected.add(bp);
+            }
+            assertEquals(expected, persistence.getBlueprintsInBox(box), box.toString());
+        }
+    }
+
+    @Test
+    void testBoxBoundsAreInclusiveAcrossNegativeCells() {
+        InMemoryBlueprintPersistence persistence = new InMemoryBlueprintPersistence();
+        Blueprint bp = new Blueprint("edge", "bp", 0);
+        bp.addPoint(-64, -1);
+        persistence.saveBlueprints(List.of(bp));
+
+        assertEquals(Set.of(bp), persistence.getBlueprintsInBox(new BoundingBox(-64, -1, -64, -1)));
+        assertTrue(persistence.getBlueprintsInBox(new BoundingBox(-63, -1, -1, -1)).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> BoundingBox.parse("1,1,0,0"));
+    }
+}
@@ -0,0 +1,71 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.cache.WeightedLruCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedLruCacheTest {
+
+    @Test
+    void testEvictsLeastRecentlyUsedByWeight() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, Duration.ofMinutes(1), String::length);
+        cache.put("a", "aaaa", cache.generation());
+        cache.put("b", "bbbb", cache.generation());
+        assertEquals("aaaa", cache.get("a"));
+
+        cache.put("c", "cccc", cache.generation());
+
+        assertNull(cache.get("b"));
+        assertEquals("aaaa", cache.get("a"));
+        assertEquals("cccc", cache.get("c"));
+        WeightedLruCache.Stats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(8, stats.weight());
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() throws InterruptedException {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, Duration.ofMillis(20), String::length);
+        cache.put("a", "a", cache.generation());
+        Thread.sleep(50);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void testLoadStartedBeforeInvalidationIsNotCached() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, Duration.ofMinutes(1), String::length);
+        long generation = cache.generation();
+        cache.invalidate("a");
+        cache.put("a", "stale", generation);
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void testInvalidatingAnotherKeyKeepsTheLoad() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, Duration.ofMinutes(1), String::length);
+        long generation = cache.generation();
+        cache.invalidate("b");
+        cache.put("a", "fresh", generation);
+        assertEquals("fresh", cache.get("a"));
+    }
+
+    @Test
+    void testForgottenInvalidationsStillRefuseOlderLoads() {
+        WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, Duration.ofMinutes(1), String::length);
+        long generation = cache.generation();
+        cache.invalidate("a");
+        for (int i = 0; i < 5_000; i++) cache.invalidate("other" + i);
+        cache.put("a", "stale", generation);
+        assertNull(cache.get("a"));
+
+        long later = cache.generation();
+        cache.put("a", "fresh", later);
+        assertEquals("fresh", cache.get("a"));
+    }
+}
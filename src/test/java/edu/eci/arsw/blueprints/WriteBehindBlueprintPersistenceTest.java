@@ -0,0 +1,161 @@
+package edu.eci.arsw.blueprints;
+
+import edu.eci.arsw.blueprints.model.Blueprint;
+import edu.eci.arsw.blueprints.model.Point;
+import edu.eci.arsw.blueprints.model.PointRange;
+import edu.eci.arsw.blueprints.persistence.BlueprintNotFoundException;
+import edu.eci.arsw.blueprints.persistence.ForwardingBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.InMemoryBlueprintPersistence;
+import edu.eci.arsw.blueprints.persistence.WriteBehindBlueprintPersistence;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindBlueprintPersistenceTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final InMemoryBlueprintPersistence store = new InMemoryBlueprintPersistence();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicBoolean failNext = new AtomicBoolean();
+    private final ForwardingBlueprintPersistence counting = new ForwardingBlueprintPersistence(store) {
+        @Override
+        public void addPoints(String author, String name, int[] xy) throws BlueprintNotFoundException {
+            if (failNext.getAndSet(false)) throw new IllegalStateException("store down");
+            batches.incrementAndGet();
+            delegate.addPoints(author, name, xy);
+        }
+    };
+
+    private WriteBehindBlueprintPersistence writeBehind(int batchSize, int maxPending, Duration interval) {
+        return new WriteBehindBlueprintPersistence(counting, batchSize, maxPending, interval, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testReadsSeeBufferedAppends() throws Exception {
+        WriteBehindBlueprintPersistence persistence = writeBehind(100, 1000, NEVER);
+        long version = store.getBlueprintVersion("john", "house");
+
+        for (int i = 0; i < 3; i++) persistence.addPoint("john", "house", 100 + i, 100 + i);
+        assertEquals(4, store.getBlueprint("john", "house").pointCount());
+        assertEquals(3, persistence.pendingPoints());
+
+        assertEquals(version + 1, persistence.getBlueprintVersion("john", "house"));
+        assertEquals(7, persistence.getBlueprint("john", "house").pointCount());
+        assertEquals(1, batches.get());
+        assertEquals(0, persistence.pendingPoints());
+        persistence.close();
+    }
+
+    @Test
+    void testPointRangesSeeBufferedAppends() throws Exception {
+        WriteBehindBlueprintPersistence persistence = writeBehind(100, 1000, NEVER);
+        Blueprint stored = store.getBlueprint("john", "house");
+        int n = stored.pointCount();
+
+        persistence.addPoint("john", "house", 100, 101);
+        persistence.addPoint("john", "house", 102, 103);
+        PointRange range = persistence.getPoints("john", "house", n - 1, 10);
+
+        assertEquals(List.of(new Point(stored.xAt(n - 1), stored.yAt(n - 1)), new Point(100, 101), new Point(102, 103)),
+                range.points());
+        assertEquals(n + 2, range.pointCount());
+        assertEquals(store.getBlueprintVersion("john", "house"), range.version());
+        assertEquals(0, persistence.pendingPoints());
+        assertEquals(List.of(), persistence.getPoints("john", "house", n + 2, 10).points());
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.getPoints("john", "missing", 0, 10));
+        persistence.close();
+    }
+
+    @Test
+    void testConcurrentBurstIsCoalescedAndKeepsEachWritersOrder() throws Exception {
+        store.saveBlueprint(new Blueprint("burst", "bp", 0));
+        WriteBehindBlueprintPersistence persistence = writeBehind(500, 5000, Duration.ofMillis(5));
+        int writers = 4, perWriter = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> done = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            done.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) persistence.addPoint("burst", "bp", writer, i);
+                return null;
+            }));
+        }
+        for (Future<?> f : done) f.get();
+        pool.shutdown();
+        persistence.close();
+
+        Blueprint bp = store.getBlueprint("burst", "bp");
+        assertEquals(writers * perWriter, bp.pointCount());
+        int[] next = new int[writers];
+        for (int i = 0; i < bp.pointCount(); i++) assertEquals(next[bp.xAt(i)]++, bp.yAt(i));
+        assertTrue(batches.get() < writers * perWriter / 10, "batches: " + batches.get());
+    }
+
+    @Test
+    void testFullBufferIsFlushedByTheWriter() throws Exception {
+        WriteBehindBlueprintPersistence persistence = writeBehind(8, 8, NEVER);
+        for (int i = 0; i < 100; i++) {
+            persistence.addPoint("jane", "garden", i, i);
+            assertTrue(persistence.pendingPoints() <= 8);
+        }
+        persistence.close();
+        assertEquals(103, store.getBlueprint("jane", "garden").pointCount());
+    }
+
+    @Test
+    void testAppendToMissingBlueprintFailsAtOnce() {
+        WriteBehindBlueprintPersistence persistence = writeBehind(100, 1000, NEVER);
+        assertThrows(BlueprintNotFoundException.class, () -> persistence.addPoint("nobody", "nothing", 1, 1));
+        assertEquals(0, persistence.pendingPoints());
+        persistence.close();
+    }
+
+    @Test
+    void testFailedFlushKeepsThePointsForTheNextOne() throws Exception {
+        WriteBehindBlueprintPersistence persistence = writeBehind(100, 1000, NEVER);
+        persistence.addPoint("john", "garage", 1, 2);
+        failNext.set(true);
+
+        assertThrows(IllegalStateException.class, () -> persistence.getBlueprint("john", "garage"));
+        assertEquals(1, persistence.pendingPoints());
+
+        Blueprint bp = persistence.getBlueprint("john", "garage");
+        assertEquals(4, bp.pointCount());
+        assertEquals(2, bp.yAt(3));
+        persistence.close();
+    }
+
+    @Test
+    void testBatchAppendGoesAfterBufferedPoints() throws Exception {
+        WriteBehindBlueprintPersistence persistence = writeBehind(100, 1000, NEVER);
+        persistence.addPoint("jane", "garden", 7, 7);
+        persistence.addPoints("jane", "garden", new int[] {8, 8, 9, 9});
+
+        Blueprint bp = store.getBlueprint("jane", "garden");
+        assertEquals(List.of(7, 8, 9), List.of(bp.xAt(3), bp.xAt(4), bp.xAt(5)));
+        persistence.close();
+    }
+
+    @Test
+    void testCloseWritesEveryBufferedPoint() throws Exception {
+        WriteBehindBlueprintPersistence persistence = writeBehind(100, 1000, NEVER);
+        persistence.addPoint("john", "house", 1, 1);
+        persistence.addPoint("jane", "garden", 2, 2);
+
+        persistence.close();
+
+        assertEquals(5, store.getBlueprint("john", "house").pointCount());
+        assertEquals(4, store.getBlueprint("jane", "garden").pointCount());
+    }
+}